@@ -1,7 +1,12 @@
 package com.amusnet.config;
 
 import com.amusnet.exception.ConfigurationInitializationException;
+import com.amusnet.game.components.LineOutcomeTable;
+import com.amusnet.game.components.ReelScreen;
+import com.amusnet.rng.AliasTable;
+import com.amusnet.rng.StopSampler;
 import com.amusnet.util.ErrorMessages;
+import com.amusnet.util.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -19,6 +24,7 @@ import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.util.*;
@@ -34,21 +40,29 @@ public class GameConfig {
     private int screenRowCount;
     private int screenColumnCount;
 
-    private DecimalFormat currencyFormat = new DecimalFormat();
+    private DecimalFormat currencyFormat = new DecimalFormat("#");
 
-    private double startingBalance;
+    // in minor units, see getCurrencyScale()
+    private long startingBalance;
     private int lineCount;
-    private double betLimit;
+    private long betLimit;
 
     private String exitCommand;
 
     private List<List<Integer>> reels;
+    // weight of each stop of each reel, null for reels (or all reels) of equal weights
+    private List<List<Integer>> reelWeights;
     private List<List<Integer>> lines;
 
     private Set<Integer> scatters;
     private int wildcard;
 
     private final MultipliersTable table = new MultipliersTable();
+    private PayTable payTable;
+    private LineOutcomeTable lineOutcomeTable;
+    private boolean lineOutcomeTableCompiled;
+    private ReelWindows reelWindows;
+    private StopSampler stopSampler;
 
     public GameConfig() {
     }
@@ -89,6 +103,7 @@ public class GameConfig {
 
     public void setScreenRowCount(int screenRowCount) {
         this.screenRowCount = screenRowCount;
+        this.reelWindows = null;
     }
 
     public int getScreenColumnCount() {
@@ -97,17 +112,54 @@ public class GameConfig {
 
     public void setScreenColumnCount(int screenColumnCount) {
         this.screenColumnCount = screenColumnCount;
+        this.lineOutcomeTableCompiled = false;
+        this.reelWindows = null;
+        this.stopSampler = null;
     }
 
     public DecimalFormat getCurrencyFormat() {
         return currencyFormat;
     }
 
-    public double getStartingBalance() {
+    /**
+     * @return The number of fraction digits of the currency, i.e. 0 for whole amounts and 2 for cents.
+     * All amounts of money are held in minor units of this scale.
+     * @see Money
+     */
+    public int getCurrencyScale() {
+        return currencyFormat.getMaximumFractionDigits();
+    }
+
+    /**
+     * Parses an amount of money, e.g. user input.
+     *
+     * @param amount The amount, e.g. "12.34".
+     * @return The amount in minor units.
+     * @throws NumberFormatException If the amount is not a number.
+     * @throws ArithmeticException If the amount has more fraction digits than the currency.
+     */
+    public long parseMoney(String amount) {
+        return Money.parse(amount, getCurrencyScale());
+    }
+
+    /**
+     * Formats an amount of money with the currency format.
+     *
+     * @param minorUnits The amount in minor units.
+     * @return The formatted amount.
+     */
+    public String formatMoney(long minorUnits) {
+        return currencyFormat.format(Money.toAmount(minorUnits, getCurrencyScale()));
+    }
+
+    /**
+     * @return The starting balance, in minor units.
+     */
+    public long getStartingBalance() {
         return startingBalance;
     }
 
-    public void setStartingBalance(double startingBalance) {
+    public void setStartingBalance(long startingBalance) {
         this.startingBalance = startingBalance;
     }
 
@@ -119,11 +171,21 @@ public class GameConfig {
         this.lineCount = lineCount;
     }
 
-    public double getBetLimit() {
+    /**
+     * @return The smallest bet per line, i.e. 1 in the currency, in minor units.
+     */
+    public long getMinimumBet() {
+        return Money.toMinorUnits(BigDecimal.ONE, getCurrencyScale());
+    }
+
+    /**
+     * @return The largest bet per line, in minor units.
+     */
+    public long getBetLimit() {
         return betLimit;
     }
 
-    public void setBetLimit(double betLimit) {
+    public void setBetLimit(long betLimit) {
         this.betLimit = betLimit;
     }
 
@@ -141,6 +203,24 @@ public class GameConfig {
 
     public void setReels(List<List<Integer>> reels) {
         this.reels = reels;
+        this.reelWindows = null;
+        this.stopSampler = null;
+    }
+
+    public List<List<Integer>> getReelWeights() {
+        return reelWeights;
+    }
+
+    /**
+     * Sets the weights of the reel stops, i.e. the number of virtual stops each stop takes up:
+     * stop i of a reel lands with probability w_i / (w_0 + ... + w_n-1).
+     *
+     * @param reelWeights The weights of the stops of each reel, in reel order. The whole list, or the weights
+     *                    of a reel, may be null for stops of equal weights.
+     */
+    public void setReelWeights(List<List<Integer>> reelWeights) {
+        this.reelWeights = reelWeights;
+        this.stopSampler = null;
     }
 
     public List<List<Integer>> getLines() {
@@ -165,12 +245,91 @@ public class GameConfig {
 
     public void setWildcard(Integer wildcard) {
         this.wildcard = wildcard;
+        this.lineOutcomeTableCompiled = false;
     }
 
     public MultipliersTable getTable() {
         return table;
     }
 
+    /**
+     * Fetches the compiled form of the multipliers table, used during play.
+     *
+     * @return The compiled multipliers table.
+     * @see PayTable
+     */
+    public PayTable getPayTable() {
+        return payTable;
+    }
+
+    /**
+     * Fetches the precomputed outcomes of every possible line content. The table is built when the
+     * configuration is loaded from XML; for a manually set up configuration it is built on first access.
+     *
+     * @return The line outcome table, or null if the configuration is too large for one.
+     * @see LineOutcomeTable
+     */
+    public synchronized LineOutcomeTable getLineOutcomeTable() {
+        if (!lineOutcomeTableCompiled) {
+            lineOutcomeTable = LineOutcomeTable.compile(this);
+            lineOutcomeTableCompiled = true;
+        }
+        return lineOutcomeTable;
+    }
+
+    /**
+     * Fetches every window of every reel, precomputed. The windows are computed when the
+     * configuration is loaded from XML; for a manually set up configuration on first access.
+     *
+     * @return The reel windows.
+     * @see ReelWindows
+     */
+    public synchronized ReelWindows getReelWindows() {
+        if (reelWindows == null)
+            reelWindows = ReelWindows.compile(reels.subList(0, screenColumnCount), screenRowCount,
+                    ReelScreen.supportsBitboards(screenRowCount, screenColumnCount));
+        return reelWindows;
+    }
+
+    /**
+     * @return The number of combinations of reel stops, i.e. the product of the lengths of the screen's reels,
+     * which may all differ.
+     * @throws ArithmeticException If the product overflows a long.
+     * @see ReelWindows#getCycleSize()
+     */
+    public long getCycleSize() {
+        return getReelWindows().getCycleSize();
+    }
+
+    /**
+     * Fetches the sampler of the reel stops, which draws the stops of weighted reels from
+     * alias tables. The sampler is built when the configuration is loaded from XML; for a manually
+     * set up configuration on first access.
+     *
+     * @return The stop sampler.
+     * @throws IllegalArgumentException If the weights of a reel are not one per stop, or are invalid.
+     * @see AliasTable
+     */
+    public synchronized StopSampler getStopSampler() {
+        if (stopSampler == null) {
+            AliasTable[] tables = new AliasTable[screenColumnCount];
+            for (int i = 0; i < screenColumnCount; i++) {
+                int reelLength = reels.get(i).size();
+                List<Integer> weights = reelWeights != null ? reelWeights.get(i) : null;
+                if (weights == null) {
+                    tables[i] = AliasTable.uniform(reelLength);
+                    continue;
+                }
+                if (weights.size() != reelLength)
+                    throw new IllegalArgumentException("Reel " + i + " has " + weights.size()
+                            + " weights for " + reelLength + " stops");
+                tables[i] = AliasTable.of(weights.stream().mapToLong(Integer::longValue).toArray());
+            }
+            stopSampler = StopSampler.of(tables);
+        }
+        return stopSampler;
+    }
+
     //****************
     //* MAIN METHODS *
     //****************
@@ -229,14 +388,47 @@ public class GameConfig {
                 ));
             }
             this.reels = new ArrayList<>();
+            this.reelWeights = null;
             for (int i = 0; i < nlReelArrays.getLength(); i++) {
-                String strReelArray = nlReelArrays.item(i).getChildNodes().item(0).getNodeValue();
+                // reels may have any number of stops, but at least one
+                String strReelArray = nlReelArrays.item(i).getTextContent().strip();
+                if (strReelArray.isEmpty()) {
+                    log.error("Reel array {} has no stops", i);
+                    throw new ConfigurationInitializationException(errorMessages.message(
+                            "Empty reel array", "Reel arrays must have at least one stop"
+                    ));
+                }
                 String[] reelArrayValues = strReelArray.split(",");
                 List<Integer> reelList = new ArrayList<>();
                 for (String v : reelArrayValues)
                     reelList.add(Integer.parseInt(v));
                 this.reels.add(reelList);
+
+                // optional weights of the reel's stops
+                Element eReelArray = (Element) nlReelArrays.item(i);
+                if (!eReelArray.hasAttribute("weights"))
+                    continue;
+                String[] weightValues = eReelArray.getAttribute("weights").split(",");
+                if (weightValues.length != reelList.size()) {
+                    log.error("Reel array {} has {} stops but {} weights", i, reelList.size(), weightValues.length);
+                    throw new ConfigurationInitializationException(errorMessages.message(
+                            "Reel weights discrepancy", "Number of reel weights not equal to number of reel stops"
+                    ));
+                }
+                List<Integer> weightList = new ArrayList<>();
+                for (String v : weightValues)
+                    weightList.add(Integer.parseInt(v.trim()));
+                if (weightList.stream().anyMatch(w -> w < 0) || weightList.stream().allMatch(w -> w == 0)) {
+                    log.error("Reel array {} has invalid weights: {}", i, weightList);
+                    throw new ConfigurationInitializationException(errorMessages.message(
+                            "Invalid reel weights", "Reel weights must not be negative or all zero"
+                    ));
+                }
+                if (this.reelWeights == null)
+                    this.reelWeights = new ArrayList<>(Collections.nCopies(nlReelArrays.getLength(), null));
+                this.reelWeights.set(i, weightList);
             }
+            this.stopSampler = null;
         }
 
         // set up multipliers table
@@ -254,6 +446,14 @@ public class GameConfig {
                 String strFace = ((Element) card).getAttribute("face");
                 int cardValue = Integer.parseInt(strFace);
 
+                // cards are used as indices in the compiled table
+                if (cardValue < 0) {
+                    log.error("Negative card {} in multipliers table", cardValue);
+                    throw new ConfigurationInitializationException(errorMessages.message(
+                            "Invalid card face", "Card faces in multipliers table should not be negative"
+                    ));
+                }
+
                 // table should not have duplicate cards
                 if (!cards.contains(cardValue))
                     cards.add(cardValue);
@@ -325,6 +525,7 @@ public class GameConfig {
             this.table.setOccurrenceCounts
                     (finalOccurrenceCounts.values().stream().sorted().collect(Collectors.toCollection(LinkedHashSet::new)));
             this.table.setData(data);
+            this.payTable = PayTable.compile(this.table);
         }
 
         /*
@@ -392,7 +593,7 @@ public class GameConfig {
         // set starting balance
         {
             NodeList nlStartingBalance = root.getElementsByTagName("balance");
-            this.startingBalance = Double.parseDouble(nlStartingBalance.item(0).getChildNodes().item(0).getNodeValue());
+            this.startingBalance = parseConfiguredMoney(nlStartingBalance.item(0).getChildNodes().item(0).getNodeValue());
         }
 
         // set number of lines
@@ -404,7 +605,7 @@ public class GameConfig {
         // set bet limit
         {
             NodeList nlBetLimit = root.getElementsByTagName("betlimit");
-            this.betLimit = Double.parseDouble(nlBetLimit.item(0).getChildNodes().item(0).getNodeValue());
+            this.betLimit = parseConfiguredMoney(nlBetLimit.item(0).getChildNodes().item(0).getNodeValue());
         }
 
         // set exit command
@@ -427,6 +628,24 @@ public class GameConfig {
             }
         }
 
+        // precompute line outcomes (if the configuration is small enough), reel windows and stop sampler
+        getLineOutcomeTable();
+        getReelWindows();
+        getStopSampler();
+
+    }
+
+    private long parseConfiguredMoney(String amount) throws ConfigurationInitializationException {
+        try {
+            return parseMoney(amount);
+        } catch (ArithmeticException e) {
+            ErrorMessages errorMessages = ErrorMessages.getInstance();
+            log.error("Amount {} does not fit the currency format {}", amount, currencyFormat.toPattern());
+            throw new ConfigurationInitializationException(errorMessages.message(
+                    ErrorMessages.DefaultMessageTitles.TITLE_EMSG_INVALID_AMOUNT,
+                    "Amount has more fraction digits than the currency format allows"
+            ));
+        }
     }
 
     /**
@@ -440,6 +659,8 @@ public class GameConfig {
     public void setupTable(LinkedHashSet<Integer> occurrenceCounts, Map<Integer, Map<Integer, Integer>> data) {
         table.setOccurrenceCounts(occurrenceCounts);
         table.setData(data);
+        payTable = PayTable.compile(table);
+        lineOutcomeTableCompiled = false;
     }
 
     @Override
@@ -461,14 +682,18 @@ public class GameConfig {
         sb.append("Currency format:\n");
         sb.append(currencyFormat.toPattern());
 
-        sb.append("Starting balance: ").append(startingBalance).append(nl);
+        sb.append("Starting balance: ").append(formatMoney(startingBalance)).append(nl);
         sb.append("Line count: ").append(startingBalance).append(nl);
-        sb.append("Bet limit: ").append(betLimit).append(nl);
+        sb.append("Bet limit: ").append(formatMoney(betLimit)).append(nl);
 
         sb.append("Exit command: ").append(exitCommand).append(nl);
 
         sb.append("Reel arrays:").append(nl);
         reels.forEach(ra -> sb.append(ra).append(nl));
+        if (reelWeights != null) {
+            sb.append("Reel weights:").append(nl);
+            reelWeights.forEach(rw -> sb.append(rw != null ? rw : "uniform").append(nl));
+        }
 
         sb.append("Line arrays:").append(nl);
         lines.forEach(la -> sb.append(la).append(nl));
@@ -0,0 +1,96 @@
+package com.amusnet.config;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A compiled, read-only form of the {@link MultipliersTable}, meant for the spin path.
+ * Multipliers are kept in a dense {@code int[card][occurrences]} array, where 0 means "no pay",
+ * so a lookup is a bounds-checked array read instead of two boxed map lookups.
+ *
+ * @see GameConfig#getPayTable()
+ */
+public class PayTable {
+
+    private final int[][] multipliers;
+    private final boolean[] cards;
+
+    private PayTable(int[][] multipliers, boolean[] cards) {
+        this.multipliers = multipliers;
+        this.cards = cards;
+    }
+
+    /**
+     * Compiles a multipliers table. Cards are used as indices, so they must not be negative.
+     *
+     * @param table The table to compile.
+     * @return The compiled table.
+     */
+    public static PayTable compile(MultipliersTable table) {
+        Map<Integer, Map<Integer, Integer>> data = table.getData();
+
+        int maxCard = -1;
+        for (int card : data.keySet()) {
+            if (card < 0)
+                throw new IllegalArgumentException("Negative card " + card + " in multipliers table");
+            maxCard = Math.max(maxCard, card);
+        }
+
+        int[][] multipliers = new int[maxCard + 1][];
+        boolean[] cards = new boolean[maxCard + 1];
+        for (int card = 0; card <= maxCard; card++) {
+            var rightColumns = data.get(card);
+            if (rightColumns == null) {
+                multipliers[card] = new int[0];
+                continue;
+            }
+            cards[card] = true;
+            int maxOccurrences = rightColumns.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            int[] row = new int[maxOccurrences + 1];
+            rightColumns.forEach((occurrences, amount) -> row[occurrences] = amount);
+            multipliers[card] = row;
+        }
+
+        return new PayTable(multipliers, cards);
+    }
+
+    /**
+     * Fetches the multiplier of a card for a number of occurrences.
+     *
+     * @param card The card.
+     * @param occurrences The number of times the card is present.
+     * @return The multiplier, or 0 if there is no such element in the table.
+     */
+    public int multiplier(int card, int occurrences) {
+        if (card < 0 || card >= multipliers.length)
+            return 0;
+        var row = multipliers[card];
+        if (occurrences < 0 || occurrences >= row.length)
+            return 0;
+        return row[occurrences];
+    }
+
+    /**
+     * @param card The card.
+     * @return Whether the card is described in the table.
+     */
+    public boolean contains(int card) {
+        return card >= 0 && card < cards.length && cards[card];
+    }
+
+    /**
+     * @return The number of card indices in the table, i.e. the largest card plus one.
+     */
+    public int getCardIndexCount() {
+        return multipliers.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int card = 0; card < multipliers.length; card++)
+            if (cards[card])
+                sb.append(card).append(" -> ").append(Arrays.toString(multipliers[card])).append(System.lineSeparator());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,215 @@
+package com.amusnet.config;
+
+import java.util.List;
+
+/**
+ * Every window of every reel, i.e. the cards a reel shows on screen for each of its stops,
+ * precomputed so that generating a screen is a lookup per reel instead of a copy with wrap-around checks.
+ * <br/><br/>
+ * Reels may have any number of stops each: every reel keeps its own length (its cycle), along with the number
+ * of times each card is on it, and the full cycle of the screen is the product of the reel lengths.
+ * <br/><br/>
+ * The windows of all reels are kept in a single flat array: window w (0-based) of a reel is the w-th
+ * window of all windows of the reels before it and the reel itself, and its cards take up screen row count
+ * consecutive cells. Along with the cards, the distinct cards of each window are kept, each with its number
+ * of occurrences in the window and, for screens of up to 64 cells, the bitboard of the cells holding it
+ * (bit = row * columnCount + column, the reel being the column).
+ * <br/><br/>
+ * Example, for 3 rows and the reel [6,6,6,1,1,1,0,0,0,3,3,3,4,4,4,2,2,2,5,5,5,1,1,1,7,4,4,4,2,2]:
+ * the window of stop 28 is (2, 2, 6), with distinct cards 2 (x2) and 6 (x1).
+ *
+ * @see GameConfig#getReelWindows()
+ */
+public class ReelWindows {
+
+    private static final int NO_CARD = -1;
+
+    private final int rowCount;
+    private final int[] reelLengths;
+    private final int[] firstWindows;
+
+    // [reel * cardIndexCount + card]
+    private final int cardIndexCount;
+    private final int[] symbolCounts;
+
+    // [window * rowCount + row]
+    private final int[] cells;
+    private final int[] distinctCards;     // NO_CARD after the last distinct card of a window
+    private final int[] distinctCounts;
+    private final long[] distinctMasks;     // null if the screen has more than 64 cells
+
+    private ReelWindows(int rowCount, int[] reelLengths, int[] firstWindows, int cardIndexCount, int[] symbolCounts,
+                        int[] cells, int[] distinctCards, int[] distinctCounts, long[] distinctMasks) {
+        this.rowCount = rowCount;
+        this.reelLengths = reelLengths;
+        this.firstWindows = firstWindows;
+        this.cardIndexCount = cardIndexCount;
+        this.symbolCounts = symbolCounts;
+        this.cells = cells;
+        this.distinctCards = distinctCards;
+        this.distinctCounts = distinctCounts;
+        this.distinctMasks = distinctMasks;
+    }
+
+    /**
+     * Computes the windows of the reels of a screen.
+     *
+     * @param reels The reels, one per screen column.
+     * @param rowCount The number of rows of the screen.
+     * @param withBitboards Whether to compute bitboards, i.e. the screen has no more than 64 cells.
+     * @return The windows.
+     * @throws IllegalArgumentException If a reel is empty or holds a negative card.
+     */
+    public static ReelWindows compile(List<List<Integer>> reels, int rowCount, boolean withBitboards) {
+        int columnCount = reels.size();
+        int[] reelLengths = new int[columnCount];
+        int[] firstWindows = new int[columnCount + 1];
+        int cardIndexCount = 0;
+        for (int i = 0; i < columnCount; i++) {
+            reelLengths[i] = reels.get(i).size();
+            if (reelLengths[i] == 0)
+                throw new IllegalArgumentException("Reel " + (i + 1) + " is empty");
+            firstWindows[i + 1] = firstWindows[i] + reelLengths[i];
+            for (int card : reels.get(i)) {
+                if (card < 0)
+                    throw new IllegalArgumentException("Negative card " + card + " on reel " + (i + 1));
+                cardIndexCount = Math.max(cardIndexCount, card + 1);
+            }
+        }
+
+        int[] symbolCounts = new int[columnCount * cardIndexCount];
+        for (int i = 0; i < columnCount; i++)
+            for (int card : reels.get(i))
+                symbolCounts[i * cardIndexCount + card]++;
+
+        int windowCount = firstWindows[columnCount];
+        int[] cells = new int[windowCount * rowCount];
+        int[] distinctCards = new int[cells.length];
+        int[] distinctCounts = new int[cells.length];
+        long[] distinctMasks = withBitboards ? new long[cells.length] : null;
+
+        for (int i = 0; i < columnCount; i++) {
+            List<Integer> reel = reels.get(i);
+            for (int stop = 0; stop < reelLengths[i]; stop++) {
+                int base = (firstWindows[i] + stop) * rowCount;
+                int distinct = 0;
+                for (int row = 0; row < rowCount; row++) {
+                    int card = reel.get((stop + row) % reelLengths[i]);
+                    cells[base + row] = card;
+
+                    int k = 0;
+                    while (k < distinct && distinctCards[base + k] != card)
+                        k++;
+                    if (k == distinct) {
+                        distinctCards[base + k] = card;
+                        distinct++;
+                    }
+                    distinctCounts[base + k]++;
+                    if (withBitboards)
+                        distinctMasks[base + k] |= 1L << (row * columnCount + i);
+                }
+                for (int k = distinct; k < rowCount; k++)
+                    distinctCards[base + k] = NO_CARD;
+            }
+        }
+
+        return new ReelWindows(rowCount, reelLengths, firstWindows, cardIndexCount, symbolCounts,
+                cells, distinctCards, distinctCounts, distinctMasks);
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getReelCount() {
+        return reelLengths.length;
+    }
+
+    /**
+     * @param reel 0-based index of the reel.
+     * @return The number of stops (windows) of the reel.
+     */
+    public int getReelLength(int reel) {
+        return reelLengths[reel];
+    }
+
+    /**
+     * @return The number of combinations of reel stops, i.e. the product of the reel lengths.
+     * @throws ArithmeticException If the product overflows a long.
+     */
+    public long getCycleSize() {
+        long cycleSize = 1;
+        for (int reelLength : reelLengths)
+            cycleSize = Math.multiplyExact(cycleSize, reelLength);
+        return cycleSize;
+    }
+
+    /**
+     * @param reel 0-based index of the reel.
+     * @param card The card.
+     * @return The number of stops of the reel holding the card.
+     */
+    public int symbolCount(int reel, int card) {
+        if (card < 0 || card >= cardIndexCount)
+            return 0;
+        return symbolCounts[reel * cardIndexCount + card];
+    }
+
+    public boolean hasBitboards() {
+        return distinctMasks != null;
+    }
+
+    /**
+     * Fetches the index of the first cell of a window, to be used with the accessors below.
+     * The window's cells are [index, index + row count), and so are its distinct cards.
+     *
+     * @param reel 0-based index of the reel.
+     * @param stop The stop of the reel, i.e. the position of the reel array shown on the first row.
+     * @return The index of the window's first cell.
+     * @throws IndexOutOfBoundsException If there is no such stop.
+     */
+    public int windowIndex(int reel, int stop) {
+        if (stop < 0 || stop >= reelLengths[reel])
+            throw new IndexOutOfBoundsException("Stop " + stop + " out of bounds for reel " + (reel + 1)
+                    + " of length " + reelLengths[reel]);
+        return (firstWindows[reel] + stop) * rowCount;
+    }
+
+    /**
+     * @param index The index of a window's cell, i.e. its first cell plus its row.
+     * @return The card shown on the cell.
+     */
+    public int card(int index) {
+        return cells[index];
+    }
+
+    /**
+     * @param index The index of a window's first cell plus k.
+     * @return The k-th distinct card of the window, or a negative number if the window has k distinct cards or fewer.
+     */
+    public int distinctCard(int index) {
+        return distinctCards[index];
+    }
+
+    /**
+     * @param index The index of a window's first cell plus k.
+     * @return The number of occurrences of the k-th distinct card in the window.
+     */
+    public int distinctCount(int index) {
+        return distinctCounts[index];
+    }
+
+    /**
+     * @param index The index of a window's first cell plus k.
+     * @return The bitboard of the screen cells holding the k-th distinct card of the window.
+     * @throws NullPointerException If the windows have no bitboards.
+     */
+    public long distinctMask(int index) {
+        return distinctMasks[index];
+    }
+
+}
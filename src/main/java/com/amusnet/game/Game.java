@@ -7,6 +7,8 @@ import com.amusnet.game.components.GameRound;
 import com.amusnet.game.components.GameState;
 import com.amusnet.game.components.InfoScreen;
 import com.amusnet.game.components.ReelScreen;
+import com.amusnet.rng.SeededSession;
+import com.amusnet.rng.StopBuffer;
 import com.amusnet.util.ErrorMessages;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.statement.Update;
@@ -56,6 +58,10 @@ public class Game {
 
     boolean saveHistory;
 
+    // null unless the session is played from a recorded seed
+    private SeededSession seededSession;
+    private int[] seededDiceRolls;
+
     {
         // set creation time
         this.gameCreated = LocalDateTime.now();
@@ -104,6 +110,47 @@ public class Game {
         return this;
     }
 
+    /**
+     * Draws the reel stops of upcoming rounds ahead of time on a background thread, so that
+     * setting up a round only takes the next stops from a buffer. The stops are drawn from the
+     * reel screen's random number source, in the same order as without a buffer. The stops the previous
+     * buffer has drawn but not used yet are used first when buffering is turned off or resized.
+     *
+     * @param capacity The number of rounds to draw stops for ahead of time, or 0 to stop buffering.
+     * @return This game.
+     * @see StopBuffer
+     * @see ReelScreen#setStopBuffer(StopBuffer)
+     */
+    public Game setStopBuffering(int capacity) {
+        ReelScreen rs = this.gameState.getGameRound().getReelScreen();
+        rs.setStopBuffer(null);
+        if (capacity > 0)
+            rs.setStopBuffer(new StopBuffer(rs.getRngSource(), CONFIGURATION.getStopSampler(), capacity));
+        return this;
+    }
+
+    public SeededSession getSeededSession() {
+        return seededSession;
+    }
+
+    /**
+     * Plays the session from a recorded seed: the dice rolls of the n-th round are a pure function of
+     * the seed and n, so any round can be reconstructed in O(1) from the seed alone (see
+     * {@link SeededSession#stopsOf(long, int[])}). The history of a seeded session records the seed
+     * in the `game_seeds` table instead of the dice rolls of every turn, turn n being spin n - 1.
+     * <br/><br/>
+     * Stop buffering is turned off, since the dice rolls of a seeded round are computed, not drawn ahead.
+     *
+     * @param seed The seed of the session.
+     * @return This game.
+     */
+    public Game setSeed(long seed) {
+        setStopBuffering(0);
+        this.seededSession = new SeededSession(seed, CONFIGURATION.getStopSampler());
+        this.seededDiceRolls = new int[CONFIGURATION.getScreenColumnCount()];
+        return this;
+    }
+
     //*********************
     //* GAME START METHOD *
     //*********************
@@ -119,12 +166,13 @@ public class Game {
 
         Scanner sc = new Scanner(System.in);
         final int maxLines = this.getConfiguration().getLineCount();
-        final double betLimit = this.getConfiguration().getBetLimit();
+        final long minimumBet = this.getConfiguration().getMinimumBet();
+        final long betLimit = this.getConfiguration().getBetLimit();
 
         final String exitCommand = this.getConfiguration().getExitCommand();
 
         // main loop
-        while (this.getGameState().getCurrentBalance() >= 0.0) {
+        while (this.getGameState().getCurrentBalance() >= 0) {
 
             this.prompt();
 
@@ -133,7 +181,7 @@ public class Game {
                 break;
 
             int linesInput = -1;
-            double betInput = -1.0;
+            long betInput = -1;
 
             // valid input checks
             {
@@ -147,8 +195,8 @@ public class Game {
                 }
 
                 try {
-                    betInput = Double.parseDouble(sc.next());
-                } catch (NumberFormatException e) {
+                    betInput = this.getConfiguration().parseMoney(sc.next());
+                } catch (NumberFormatException | ArithmeticException e) {
                     System.err.println(errorMessages.message
                             (TITLE_EMSG_INVALID_BET_INPUT, "Invalid input for bet amount!"));
                     log.error("Invalid user input for bet amount: {}", betInput);
@@ -165,11 +213,11 @@ public class Game {
                             linesInput, maxLines);
                     continue;
                 }
-                if (betInput < 1 || betInput > betLimit) {
+                if (betInput < minimumBet || betInput > betLimit) {
                     System.err.println(errorMessages.message
                             (TITLE_EMSG_INCORRECT_BET_INPUT, "Incorrect bet amount placed!"));
-                    log.error("Bet amount input {} out of bounds for available values: 1-{}",
-                            betInput, betLimit);
+                    log.error("Bet amount input {} out of bounds for available values: {}-{}",
+                            betInput, minimumBet, betLimit);
                     continue;
                 }
             }
@@ -180,13 +228,13 @@ public class Game {
             // feedback
             System.out.printf("%s\t%s%nBalance: %s%n%n%s%n",
                     this.getGameState().getGameRound().getLinesPlayed(),
-                    this.getConfiguration().getCurrencyFormat().format(this.getGameState().getGameRound().getBetAmount()),
-                    this.getConfiguration().getCurrencyFormat().format(this.getGameState().getCurrentBalance()),
+                    this.getConfiguration().formatMoney(this.getGameState().getGameRound().getBetAmount()),
+                    this.getConfiguration().formatMoney(this.getGameState().getCurrentBalance()),
                     this.getGameState().getGameRound().getReelScreen()
             );
 
-            // side effect - prints necessary info to screen
-            double totalWin = this.playNextRound();
+            long totalWin = this.playNextRound();
+            infoScreen.printRoundResult(this.getGameState().getGameRound().getRoundResult());
 
             if (saveHistory)
                 writeTurnToDatabase(
@@ -212,22 +260,25 @@ public class Game {
         infoScreen.print();
     }
 
-    private ReelScreen setupNextRound(int linesPlayed, double betAmount) {
+    private ReelScreen setupNextRound(int linesPlayed, long betAmount) {
         return setupNextRound(linesPlayed, betAmount, true);
     }
 
-    public ReelScreen setupNextRound(int linesPlayed, double betAmount, boolean generateReelScreen) {
+    public ReelScreen setupNextRound(int linesPlayed, long betAmount, boolean generateReelScreen) {
         ReelScreen rs = null;
-        if (generateReelScreen)
+        if (generateReelScreen && seededSession != null) {
+            seededSession.next(seededDiceRolls);
+            rs = gameState.getGameRound().getReelScreen().generateScreen(seededDiceRolls);
+        } else if (generateReelScreen)
             rs = gameState.getGameRound().getReelScreen().generateScreen();
         gameState.getGameRound().setLinesPlayed(linesPlayed);
         gameState.getGameRound().setBetAmount(betAmount);
         return rs;
     }
 
-    public double playNextRound() {
-        double win = gameState.getGameRound().playRound();
-        if (win > 0.0)
+    public long playNextRound() {
+        long win = gameState.getGameRound().playRound().getTotalWin();
+        if (win > 0)
             gameState.addToBalance(win);
         return win;
     }
@@ -246,15 +297,16 @@ public class Game {
                       UNIQUE KEY `name_UNIQUE` (`name`)
                     )""");
 
-            // create the history table for the current game instance
+            // create the history table for the current game instance, amounts are in minor units
+            // (the reel rolls of a seeded session are reconstructed from its seed)
             handle.execute("""
                     CREATE TABLE\040""" + gameName + """ 
                        (
                       `turn` int NOT NULL AUTO_INCREMENT,
                       `lines_played` int NOT NULL,
-                      `bet_amount` decimal(10,0) NOT NULL,
-                      `total_win` decimal(10,0) NOT NULL,
-                      `reel_rolls` varchar(100) NOT NULL,
+                      `bet_amount` bigint NOT NULL,
+                      `total_win` bigint NOT NULL,
+                      """ + (seededSession == null ? "`reel_rolls` varchar(100) NOT NULL," : "") + """
                       PRIMARY KEY (`turn`),
                       UNIQUE KEY `turn_UNIQUE` (`turn`)
                     )""");
@@ -263,12 +315,34 @@ public class Game {
             Update recordGame = handle.createUpdate("INSERT INTO `games` (started, name) VALUES (:timestamp, :name); ");
             recordGame.bind("timestamp", this.gameCreated).bind("name", this.gameName);
             recordGame.execute();
+
+            // record the seed of a seeded session
+            if (seededSession != null) {
+                handle.execute("""
+                        CREATE TABLE IF NOT EXISTS `game_seeds` (
+                          `name` varchar(100) NOT NULL,
+                          `seed` bigint NOT NULL,
+                          PRIMARY KEY (`name`)
+                        )""");
+                Update recordSeed = handle.createUpdate("INSERT INTO `game_seeds` (name, seed) VALUES (:name, :seed); ");
+                recordSeed.bind("name", this.gameName).bind("seed", seededSession.getSeed());
+                recordSeed.execute();
+            }
         }
     }
 
-    private void writeTurnToDatabase(int lines, double bet, double win, int[] reelRolls) {
+    private void writeTurnToDatabase(int lines, long bet, long win, int[] reelRolls) {
         DatabaseConnectionJdbi dbc = DatabaseConnectionJdbi.getInstance();
         try (Handle handle = dbc.jdbi().open()) {
+            if (seededSession != null) {
+                handle.createUpdate("INSERT INTO " + gameName + " " +
+                                "(`lines_played`, `bet_amount`, `total_win`) VALUES (:lines, :bet, :win); ")
+                        .bind("lines", lines)
+                        .bind("bet", bet)
+                        .bind("win", win)
+                        .execute();
+                return;
+            }
             Update update = handle.createUpdate("INSERT INTO " + gameName + " " +
                     "(`lines_played`, `bet_amount`, `total_win`, `reel_rolls`)" +
                     "VALUES " +
@@ -0,0 +1,81 @@
+package com.amusnet.game.components;
+
+import com.amusnet.config.GameConfig;
+
+/**
+ * Evaluates lines against the bitboards of a {@link ReelScreen}, for screens of up to 64 cells.
+ * <br/><br/>
+ * Every line is precompiled into prefix masks: the k-th prefix mask holds the cells of the line
+ * on the first k reels. A line starts with k copies of a card (or wildcards) if the bitboard
+ * of the card, OR-ed with the bitboard of the wildcard, covers the k-th prefix mask, so counting
+ * a streak takes a few AND/compare operations instead of walking the cards of the line.
+ * The streaks are then resolved by the same rules as {@link LineEvaluator}, which gives exactly the same outcomes.
+ */
+public class BitboardLineEvaluator {
+
+    private final LineEvaluator lineEvaluator;
+    private final int wildcard;
+
+    private final int[][] lines;
+    // [line][k]: cells of the line on the first k reels
+    private final long[][] prefixMasks;
+
+    public BitboardLineEvaluator(GameConfig config) {
+        if (!ReelScreen.supportsBitboards(config.getScreenRowCount(), config.getScreenColumnCount()))
+            throw new IllegalArgumentException("Screen of " + config.getScreenRowCount() + "x"
+                    + config.getScreenColumnCount() + " cells is too large for bitboards");
+
+        this.lineEvaluator = new LineEvaluator(config);
+        this.wildcard = config.getWildcard();
+
+        int columnCount = config.getScreenColumnCount();
+        this.lines = config.getLines().stream()
+                .map(l -> l.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+        this.prefixMasks = new long[lines.length][];
+        for (int i = 0; i < lines.length; i++) {
+            prefixMasks[i] = new long[lines[i].length + 1];
+            for (int k = 1; k <= lines[i].length; k++)
+                prefixMasks[i][k] = prefixMasks[i][k - 1] | 1L << (lines[i][k - 1] * columnCount + (k - 1));
+        }
+    }
+
+    /**
+     * Evaluates a line of the screen and stores the winning card, its occurrence count
+     * and its multiplier in result.
+     *
+     * @param screen The screen, which must keep bitboards.
+     * @param line 0-based index of the line.
+     * @param result The holder to store the outcome in.
+     * @return Whether the line produced a result at all. If false, result is left untouched.
+     */
+    public boolean evaluate(ReelScreen screen, int line, LineWin result) {
+        long[] prefix = prefixMasks[line];
+        int lineLength = prefix.length - 1;
+
+        long wildcardMask = screen.getCardMask(wildcard);
+        boolean containsWildcard = (wildcardMask & prefix[lineLength]) != 0;
+
+        int wildcardOccurrences = containsWildcard ? streak(wildcardMask, prefix) : 0;
+        if (wildcardOccurrences == lineLength)
+            return lineEvaluator.resolve(lineLength, true, wildcardOccurrences, wildcard, wildcardOccurrences, result);
+
+        // first card that is not a wildcard
+        int potentialWinningCard = screen.getCardAt(lines[line][wildcardOccurrences], wildcardOccurrences);
+        int potentialOccurrences = streak(screen.getCardMask(potentialWinningCard) | wildcardMask, prefix);
+
+        return lineEvaluator.resolve(lineLength, containsWildcard,
+                wildcardOccurrences, potentialWinningCard, potentialOccurrences, result);
+    }
+
+    /**
+     * @return The largest k for which mask covers the k-th prefix mask.
+     */
+    private static int streak(long mask, long[] prefix) {
+        int k = 1;
+        while (k < prefix.length && (mask & prefix[k]) == prefix[k])
+            ++k;
+        return k - 1;
+    }
+
+}
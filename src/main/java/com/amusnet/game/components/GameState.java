@@ -2,25 +2,26 @@ package com.amusnet.game.components;
 
 /**
  * Represents the state of the Game at a given time, i.e. the balance amount and the bets made.
+ * The balance is held in minor units, see {@link com.amusnet.config.GameConfig#getCurrencyScale()}.
  */
 public class GameState {
-    private double currentBalance;
+    private long currentBalance;
     private final GameRound gameRound;
 
-    public GameState(double currentBalance, GameRound gameRound) {
+    public GameState(long currentBalance, GameRound gameRound) {
         this.currentBalance = currentBalance;
         this.gameRound = gameRound;
     }
 
-    public double getCurrentBalance() {
+    public long getCurrentBalance() {
         return currentBalance;
     }
 
-    public void addToBalance(double amount) {
+    public void addToBalance(long amount) {
         this.currentBalance += amount;
     }
 
-    public void subtractFromBalance(double amount) {
+    public void subtractFromBalance(long amount) {
         this.currentBalance -= amount;
     }
 
@@ -23,10 +23,33 @@ public class InfoScreen {
      * Prompt the user for input with an informative message.
      */
     public void print() {
-        var cf = config.getCurrencyFormat();
         System.out.printf("Balance: %s | Lines available: 1-%d | Bets per lines available: %s-%s%n",
-                cf.format(gameState.getCurrentBalance()), config.getLines().size(),
-                cf.format(1), cf.format(config.getBetLimit()));
+                config.formatMoney(gameState.getCurrentBalance()), config.getLines().size(),
+                config.formatMoney(config.getMinimumBet()), config.formatMoney(config.getBetLimit()));
         System.out.println("Please enter lines you want to play on and a bet per line: ");
     }
+
+    /**
+     * Print the winning lines and scatters of a round, or that there were no wins.
+     *
+     * @param roundResult The result of the round to print.
+     */
+    public void printRoundResult(RoundResult roundResult) {
+        for (int i = 0; i < roundResult.getLinesPlayed(); i++) {
+            var lineWin = roundResult.getLineWin(i);
+            if (lineWin.isWin())
+                System.out.printf("Line %d, Card %s x%d, win amount %s%n",
+                        i + 1, lineWin.getCard(), lineWin.getOccurrences(), config.formatMoney(lineWin.getWin()));
+        }
+
+        for (int i = 0; i < roundResult.getScatterTypeCount(); i++) {
+            if (roundResult.getScatterWin(i) != 0)
+                System.out.printf("Scatters %s x%d, win amount %s%n",
+                        roundResult.getScatter(i), roundResult.getScatterCount(i),
+                        config.formatMoney(roundResult.getScatterWin(i)));
+        }
+
+        if (roundResult.getTotalWin() == 0)
+            System.out.println("No wins");
+    }
 }
@@ -0,0 +1,141 @@
+package com.amusnet.game.components;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.config.ReelWindows;
+
+/**
+ * Evaluates all played lines at once, one line per lane.
+ * <br/><br/>
+ * Instead of following every line card by card with branches on wildcards, the cards of all lines
+ * are gathered column by column from the {@link ReelWindows} into lane arrays, and the streaks of
+ * all lines are computed over the lanes:
+ * <br/>
+ * 1. the number of wildcards in the beginning of every line,<br/>
+ * 2. the first card of every line that is not a wildcard (the potential winning card),<br/>
+ * 3. the number of cards in the beginning of every line that are the potential winning card or a wildcard.<br/>
+ * <br/>
+ * Each line's streaks are then resolved by the same rules as {@link LineEvaluator}, so the outcomes are exactly
+ * the same. Use {@link #evaluate(ReelScreen, int)} once per screen, then {@link #outcome(int, LineWin)} per line.
+ * <br/><br/>
+ * The only implementation computes the lanes with the JDK Vector API, see {@link #vectorApi(GameConfig)}.
+ * The same lanes computed by plain loops were slower than {@link LineEvaluator}, so they are not offered.
+ */
+public abstract class LaneLineEvaluator {
+
+    /**
+     * The incubator module of the JDK Vector API, which has to be added to the compiler and the JVM
+     * (--add-modules) for {@link #vectorApi(GameConfig)}.
+     */
+    public static final String VECTOR_API_MODULE = "jdk.incubator.vector";
+
+    // compiled only by the vector-api build profile
+    private static final String VECTOR_API_EVALUATOR = "com.amusnet.game.components.VectorLineEvaluator";
+
+    final LineEvaluator lineEvaluator;
+    final int wildcard;
+    final int columnCount;
+
+    // [column][line]: row of the line on the column
+    private final int[][] lineRows;
+
+    // lanes, [column][line] and [line], with room for laneCount lanes
+    final int[][] cards;
+    final int[] containsWildcard;
+    final int[] wildcardOccurrences;
+    final int[] potentialWinningCards;
+    final int[] potentialOccurrences;
+
+    /**
+     * @param laneMultiple The lanes are allocated in multiples of it, so that they can be processed in
+     *                     whole vectors of that many lanes.
+     */
+    LaneLineEvaluator(GameConfig config, int laneMultiple) {
+        this.lineEvaluator = new LineEvaluator(config);
+        this.wildcard = config.getWildcard();
+        this.columnCount = config.getScreenColumnCount();
+
+        var lines = config.getLines();
+        int lineCount = lines.size();
+        this.lineRows = new int[columnCount][lineCount];
+        for (int l = 0; l < lineCount; l++)
+            for (int j = 0; j < columnCount; j++)
+                lineRows[j][l] = lines.get(l).get(j);
+
+        int laneCount = (lineCount + laneMultiple - 1) / laneMultiple * laneMultiple;
+        this.cards = new int[columnCount][laneCount];
+        this.containsWildcard = new int[laneCount];
+        this.wildcardOccurrences = new int[laneCount];
+        this.potentialWinningCards = new int[laneCount];
+        this.potentialOccurrences = new int[laneCount];
+    }
+
+    /**
+     * Creates an evaluator that computes the lanes with the JDK Vector API ({@value #VECTOR_API_MODULE}).
+     * It is only available if the project was built with the vector-api profile, and the JVM was started
+     * with --add-modules {@value #VECTOR_API_MODULE}.
+     *
+     * @param config The configuration.
+     * @return The evaluator.
+     * @throws IllegalArgumentException If the Vector API evaluator is not available.
+     */
+    public static LaneLineEvaluator vectorApi(GameConfig config) {
+        if (!isVectorApiAvailable())
+            throw new IllegalArgumentException("Vector API evaluator is not available: build with -Pvector-api"
+                    + " and run with --add-modules " + VECTOR_API_MODULE);
+        try {
+            return (LaneLineEvaluator) Class.forName(VECTOR_API_EVALUATOR)
+                    .getConstructor(GameConfig.class).newInstance(config);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return Whether {@link #vectorApi(GameConfig)} is available.
+     */
+    public static boolean isVectorApiAvailable() {
+        if (ModuleLayer.boot().findModule(VECTOR_API_MODULE).isEmpty())
+            return false;
+        try {
+            Class.forName(VECTOR_API_EVALUATOR, false, LaneLineEvaluator.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Computes the streaks of the first lineCount lines of a screen.
+     *
+     * @param screen The screen to evaluate.
+     * @param lineCount The number of lines to evaluate, starting from the first.
+     */
+    public abstract void evaluate(ReelScreen screen, int lineCount);
+
+    /**
+     * Resolves the outcome of a line evaluated by the last call to {@link #evaluate(ReelScreen, int)}.
+     *
+     * @param line 0-based index of the line.
+     * @param result The holder to store the outcome in.
+     * @return Whether the line produced a result at all. If false, result is left untouched.
+     */
+    public boolean outcome(int line, LineWin result) {
+        return lineEvaluator.resolve(columnCount, containsWildcard[line] != 0, wildcardOccurrences[line],
+                potentialWinningCards[line], potentialOccurrences[line], result);
+    }
+
+    /**
+     * Gathers the cards of the first lineCount lines of a screen into the lanes, column by column.
+     */
+    final void gather(ReelScreen screen, int lineCount) {
+        ReelWindows reelWindows = screen.getReelWindows();
+        for (int j = 0; j < columnCount; j++) {
+            int window = screen.getWindow(j);
+            int[] rows = lineRows[j];
+            int[] column = cards[j];
+            for (int l = 0; l < lineCount; l++)
+                column[l] = reelWindows.card(window + rows[l]);
+        }
+    }
+
+}
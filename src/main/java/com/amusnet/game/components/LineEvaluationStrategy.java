@@ -0,0 +1,35 @@
+package com.amusnet.game.components;
+
+/**
+ * The ways a {@link GameRound} can evaluate lines. All of them give exactly the same outcomes.
+ */
+public enum LineEvaluationStrategy {
+
+    /**
+     * Walk the cards of every line, see {@link LineEvaluator}.
+     * Available for every configuration.
+     */
+    CARD_BY_CARD,
+
+    /**
+     * Count streaks with per-card bitboards, see {@link BitboardLineEvaluator}.
+     * Available for screens of up to 64 cells.
+     */
+    BITBOARD,
+
+    /**
+     * Look up the outcome of every line in a precomputed table, see {@link LineOutcomeTable}.
+     * Available if the configuration has such a table.
+     */
+    OUTCOME_TABLE,
+
+    /**
+     * Compute the streaks of all lines at once with the JDK Vector API,
+     * see {@link LaneLineEvaluator#vectorApi(com.amusnet.config.GameConfig)}.
+     * Available if the project was built with the vector-api profile and the JVM runs with
+     * --add-modules jdk.incubator.vector. An opt-in experiment: on the shipped configuration it is
+     * not faster than {@link #OUTCOME_TABLE}, see LineEvaluationBenchmark.
+     */
+    VECTOR
+
+}
@@ -0,0 +1,192 @@
+package com.amusnet.game.components;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.config.MultipliersTable;
+import com.amusnet.config.PayTable;
+
+/**
+ * Evaluates the cards of a single line, taking the wildcard into account.
+ * The outcome is bet-independent, i.e. it is expressed as a multiplier of the bet per line.
+ * Works on primitive arrays only and does not allocate.
+ */
+public class LineEvaluator {
+
+    private final PayTable payTable;
+    private final MultipliersTable table;
+    private final int wildcard;
+
+    public LineEvaluator(GameConfig config) {
+        this.payTable = config.getPayTable();
+        this.table = config.getTable();
+        this.wildcard = config.getWildcard();
+    }
+
+    /**
+     * Evaluates the cards of a line and stores the winning card, its occurrence count
+     * and its multiplier in result.
+     *
+     * @param lineCards The cards as encountered in the current examined line.
+     * @param result The holder to store the outcome in.
+     * @return Whether the line produced a result at all. If false, result is left untouched.
+     */
+    public boolean evaluate(int[] lineCards, LineWin result) {
+
+        boolean containsWildcard = false;
+        for (int lineCard : lineCards)
+            if (lineCard == wildcard) {
+                containsWildcard = true;
+                break;
+            }
+
+        // count wildcard occurrences in the beginning of lineCards
+        int wildcardOccurrences = containsWildcard ? getFirstOccurrencesForCard(wildcard, lineCards) : 0;
+        if (wildcardOccurrences == lineCards.length)
+            return resolve(lineCards.length, true, wildcardOccurrences, wildcard, wildcardOccurrences, result);
+
+        // first card that is not a wildcard
+        int potentialWinningCard = lineCards[wildcardOccurrences];
+
+        // count potential winning card's occurrences, wildcards acting as the potential winning card
+        // e.g. line 1 6 6 1 2
+        // is read as 1 1 1 1 2
+        int potentialOccurrences = getFirstOccurrencesForCard(potentialWinningCard, wildcard, lineCards);
+
+        return resolve(lineCards.length, containsWildcard,
+                wildcardOccurrences, potentialWinningCard, potentialOccurrences, result);
+    }
+
+    //*************************
+    //* HEAVY-LIFTING METHODS *
+    //*************************
+
+    /**
+     * Decides the outcome of a line from its streaks, which may be counted in any way
+     * (card by card, with bitboards, etc.) as long as they are defined as follows:
+     * <br/>
+     * wildcardOccurrences: the number of wildcards in the beginning of the line,<br/>
+     * potentialWinningCard: the first card that is not a wildcard (the wildcard itself if there is no such card),<br/>
+     * potentialOccurrences: the number of cards in the beginning of the line which are either
+     * the potential winning card or a wildcard.<br/>
+     * <br/>
+     * Stores the following in the result holder:
+     * <br/>
+     * the winning card,<br/>
+     * the win occurrence count for the winning card,<br/>
+     * the multiplier after considering the above.<br/>
+     *
+     * @param lineLength The number of cards in the line.
+     * @param containsWildcard Whether there is a wildcard anywhere in the line.
+     * @param result The holder to store the aforementioned information in.
+     * @return Whether the line produced a result at all. If false, result is left untouched.
+     */
+    boolean resolve(int lineLength, boolean containsWildcard, int wildcardOccurrences,
+                    int potentialWinningCard, int potentialOccurrences, LineWin result) {
+
+        // if there are no wildcards in the line, the streak is plain
+        if (!containsWildcard) {
+            if (potentialOccurrences < table.getMinStreakCount())
+                return false;
+
+            // store multiplier for card
+            int multiplier = payTable.multiplier(potentialWinningCard, potentialOccurrences);
+            if (multiplier == 0)
+                return false;
+
+            result.set(potentialWinningCard, potentialOccurrences, multiplier);
+            return true;
+        }
+
+        // small optimization 1:
+        // if first two cards are not equal and not wildcards
+        // there's no possibility of a streak
+        if (wildcardOccurrences == 0 && potentialOccurrences == 1)
+            return false;
+
+        // small optimization 2:
+        // there are only wildcards in the line
+        if (wildcardOccurrences == lineLength) {
+            // store multiplier for all wildcards (acting as normal cards)
+            result.set(wildcard, lineLength, payTable.multiplier(wildcard, lineLength));
+            return true;
+        }
+
+        boolean initialWildcard = wildcardOccurrences > 0;
+
+        // store multiplier after wildcard substitution
+        int appliedMaskMultiplier = payTable.multiplier(potentialWinningCard, potentialOccurrences);
+        if (appliedMaskMultiplier == 0)
+            return false;
+
+        if (initialWildcard) {
+            // store multiplier for wildcards (acting as normal cards)
+            int wildcardMultiplier = payTable.multiplier(wildcard, wildcardOccurrences);
+            if (wildcardMultiplier == 0)
+                return false;
+
+            /*
+            Compare with appliedMaskMultiplier and return appropriate info.
+            The '>' case is skipped, since it is returned even if
+            program execution does not step into current if statement's
+            body.
+             */
+
+            if (appliedMaskMultiplier < wildcardMultiplier) {
+                result.set(wildcard, wildcardOccurrences, wildcardMultiplier);
+                return true;
+            }
+
+            if (appliedMaskMultiplier == wildcardMultiplier) {
+                if (potentialWinningCard > wildcardMultiplier)
+                    result.set(potentialWinningCard, potentialOccurrences, appliedMaskMultiplier);
+                else
+                    result.set(wildcard, wildcardOccurrences, wildcardMultiplier);
+                return true;
+            }
+
+        }
+
+        result.set(potentialWinningCard, potentialOccurrences, appliedMaskMultiplier);
+        return true;
+    }
+
+    //*******************
+    //* UTILITY METHODS *
+    //*******************
+
+    /**
+     *
+     * Returns the number of times a card is encountered in the beginning
+     * of the current line of cards.
+     * <br/><br/>
+     * Example:
+     * getFirstOccurrencesForCard(1, {1,1,6,5,2})
+     *      -> will return 2
+     *
+     * @param card The card for which the occurrence count will be returned.
+     * @param lineCards The cards present on the current examined line.
+     * @return The number of times card is *continuously* present from the beginning of the line
+     */
+    private static int getFirstOccurrencesForCard(int card, int[] lineCards) {
+        int potentialOccurrences = 0;
+        while (potentialOccurrences < lineCards.length
+                && lineCards[potentialOccurrences] == card)
+            ++potentialOccurrences;
+        return potentialOccurrences;
+    }
+
+    /**
+     * Same as {@link #getFirstOccurrencesForCard(int, int[])}, but a wildcard counts as card.
+     * <br/><br/>
+     * Example:
+     * getFirstOccurrencesForCard(1, 6, {1,6,6,1,2})
+     *      -> will return 4
+     */
+    private static int getFirstOccurrencesForCard(int card, int wildcard, int[] lineCards) {
+        int potentialOccurrences = 0;
+        while (potentialOccurrences < lineCards.length
+                && (lineCards[potentialOccurrences] == card || lineCards[potentialOccurrences] == wildcard))
+            ++potentialOccurrences;
+        return potentialOccurrences;
+    }
+
+}
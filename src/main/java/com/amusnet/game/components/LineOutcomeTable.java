@@ -0,0 +1,115 @@
+package com.amusnet.game.components;
+
+import com.amusnet.config.GameConfig;
+
+/**
+ * A precomputed table holding the outcome of every possible line content.
+ * <br/><br/>
+ * The cards of a line are packed into an int, using a fixed number of bits per card,
+ * and the packed value is used as index in the table. Since the outcomes are computed by a
+ * {@link LineEvaluator}, a table read gives exactly the same result, in O(1) regardless of
+ * the wildcard's position.
+ * <br/><br/>
+ * Example, for cards 0-7 (3 bits per card) and 5 reels:
+ * line 1 6 6 1 2 is packed as 001 110 110 001 010, i.e. index 7562 out of 2^15 = 32768.
+ * <br/><br/>
+ * The table is optional: it is only built if the number of possible line contents does not exceed
+ * {@link #MAX_INDEX_BITS} bits, otherwise the line evaluator is used directly.
+ */
+public class LineOutcomeTable {
+
+    /**
+     * Largest number of bits a packed line may have (2^20 entries, 8 MiB).
+     */
+    public static final int MAX_INDEX_BITS = 20;
+
+    private static final int NO_OUTCOME = -1;
+
+    private final int bitsPerCard;
+
+    // outcome is (card << 16 | occurrences), or NO_OUTCOME
+    private final int[] outcomes;
+    private final int[] multipliers;
+
+    private LineOutcomeTable(int bitsPerCard, int[] outcomes, int[] multipliers) {
+        this.bitsPerCard = bitsPerCard;
+        this.outcomes = outcomes;
+        this.multipliers = multipliers;
+    }
+
+    /**
+     * Builds the table for a configuration.
+     *
+     * @param config The configuration to build the table for.
+     * @return The table, or null if the configuration has too many cards or reels for a table.
+     */
+    public static LineOutcomeTable compile(GameConfig config) {
+        int cardIndexCount = config.getPayTable().getCardIndexCount();
+        int columns = config.getScreenColumnCount();
+        int bitsPerCard = Math.max(1, 32 - Integer.numberOfLeadingZeros(cardIndexCount - 1));
+        if (columns < 2 || bitsPerCard * columns > MAX_INDEX_BITS)
+            return null;
+
+        int size = 1 << (bitsPerCard * columns);
+        int cardMask = (1 << bitsPerCard) - 1;
+        int[] outcomes = new int[size];
+        int[] multipliers = new int[size];
+
+        LineEvaluator evaluator = new LineEvaluator(config);
+        LineWin lineWin = new LineWin();
+        int[] lineCards = new int[columns];
+
+        nextIndex:
+        for (int index = 0; index < size; index++) {
+            outcomes[index] = NO_OUTCOME;
+
+            // unpack, first card is in the most significant bits
+            for (int j = columns - 1, packed = index; j >= 0; j--, packed >>>= bitsPerCard) {
+                lineCards[j] = packed & cardMask;
+                if (lineCards[j] >= cardIndexCount)
+                    continue nextIndex;     // no such card, index is never looked up
+            }
+
+            if (evaluator.evaluate(lineCards, lineWin)) {
+                outcomes[index] = lineWin.getCard() << 16 | lineWin.getOccurrences();
+                multipliers[index] = lineWin.getMultiplier();
+            }
+        }
+
+        return new LineOutcomeTable(bitsPerCard, outcomes, multipliers);
+    }
+
+    /**
+     * @return The number of bits each card takes up in a packed line.
+     */
+    public int getBitsPerCard() {
+        return bitsPerCard;
+    }
+
+    /**
+     * Packs the next card of a line.
+     *
+     * @param packedLine The cards of the line packed so far (0 for none).
+     * @param card The next card.
+     * @return The packed cards.
+     */
+    public int pack(int packedLine, int card) {
+        return packedLine << bitsPerCard | card;
+    }
+
+    /**
+     * Looks up the outcome of a packed line and stores it in result.
+     *
+     * @param packedLine The packed cards of the line.
+     * @param result The holder to store the outcome in.
+     * @return Whether the line produced a result at all. If false, result is left untouched.
+     */
+    public boolean lookup(int packedLine, LineWin result) {
+        int outcome = outcomes[packedLine];
+        if (outcome == NO_OUTCOME)
+            return false;
+        result.set(outcome >>> 16, outcome & 0xFFFF, multipliers[packedLine]);
+        return true;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.amusnet.game.components;
+
+/**
+ * A mutable holder for the outcome of a single line. Instances are owned by a
+ * {@link GameRound} and overwritten on every round, so that evaluating a line does not allocate.
+ */
+public class LineWin {
+
+    private int card;
+    private int occurrences;
+    private int multiplier;
+    private long win;
+
+    public int getCard() {
+        return card;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    /**
+     * @return The multiplier of the bet per line, as found in the multipliers table.
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * @return The win amount, in minor units.
+     */
+    public long getWin() {
+        return win;
+    }
+
+    /**
+     * @return Whether the line holds a win greater than zero.
+     */
+    public boolean isWin() {
+        return win != 0;
+    }
+
+    void set(int card, int occurrences, int multiplier) {
+        this.card = card;
+        this.occurrences = occurrences;
+        this.multiplier = multiplier;
+    }
+
+    void setWin(long win) {
+        this.win = win;
+    }
+
+    void clear() {
+        set(0, 0, 0);
+        setWin(0);
+    }
+
+    @Override
+    public String toString() {
+        return "Card " + card + " x" + occurrences + ", win amount " + win;
+    }
+}
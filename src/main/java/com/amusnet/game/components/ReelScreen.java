@@ -1,30 +1,77 @@
 package com.amusnet.game.components;
 
 import com.amusnet.config.GameConfig;
+import com.amusnet.config.ReelWindows;
+import com.amusnet.rng.RngSource;
+import com.amusnet.rng.StopBuffer;
+import com.amusnet.rng.StopSampler;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 
 /**
  * A simple class for representing the game screen.
+ * <br/><br/>
+ * The screen is held as the window of each reel only (see {@link ReelWindows}): generating a screen sets
+ * an int per reel, and cards are read from the precomputed windows when asked for. A grid of cards is only
+ * built by {@link #fetchScreen()} and {@link #toString()}, for rendering or persisting.
  */
 public class ReelScreen {
 
     private GameConfig config;
+    private ReelWindows reelWindows;
 
     private int rowCount;
     private int columnCount; // reels
 
-    private int[][] view;
+    // [column]: index of the first cell of the reel's window, see ReelWindows#windowIndex(int, int)
+    private int[] windows;
+
+    // number of times each card is present on screen, indexed by card
+    private int[] cardCounts;
+
+    // for screens of up to 64 cells: cells holding each card, indexed by card (bit = row * columnCount + column)
+    private long[] cardMasks;
 
     private int[] diceRolls;
 
+    private RngSource rng;
+    private StopSampler stopSampler;
+    private StopBuffer stopBuffer;
+    // dice rolls a replaced stop buffer had drawn but not handed out yet, used before drawing again
+    private final ArrayDeque<int[]> pendingDiceRolls = new ArrayDeque<>();
+    private int[] randomDiceRolls;
+
+    /**
+     * Creates a screen for a configuration, drawing dice rolls from the calling thread's
+     * {@link java.util.concurrent.ThreadLocalRandom}.
+     *
+     * @param config The configuration.
+     */
     public ReelScreen(GameConfig config) {
+        this(config, RngSource.threadLocal());
+    }
+
+    /**
+     * Creates a screen for a configuration.
+     *
+     * @param config The configuration.
+     * @param rng The source to draw dice rolls from, e.g. a seeded source for a reproducible session.
+     */
+    public ReelScreen(GameConfig config, RngSource rng) {
         this.config = config;
+        this.reelWindows = config.getReelWindows();
+        this.stopSampler = config.getStopSampler();
+        this.rng = rng;
+        randomDiceRolls = new int[config.getScreenColumnCount()];
         rowCount = config.getScreenRowCount();
         columnCount = config.getScreenColumnCount();
-        view = new int[rowCount][columnCount];
+        windows = new int[columnCount];
+        cardCounts = new int[config.getPayTable().getCardIndexCount()];
+        if (supportsBitboards(rowCount, columnCount))
+            cardMasks = new long[cardCounts.length];
     }
 
     /**
@@ -39,24 +86,114 @@ public class ReelScreen {
     private void fromList(List<List<Integer>> metaList) {
         this.rowCount = metaList.size();
         this.columnCount = metaList.get(0).size();
-        view = new int[rowCount][columnCount];
+        windows = new int[columnCount];
+        cardCounts = new int[metaList.stream().flatMap(List::stream).mapToInt(Integer::intValue).max().orElse(-1) + 1];
+        if (supportsBitboards(rowCount, columnCount))
+            cardMasks = new long[cardCounts.length];
+
+        // every column is a reel of a single stop, whose window is the column itself
+        List<List<Integer>> columns = new ArrayList<>(columnCount);
+        for (int j = 0; j < columnCount; j++) {
+            List<Integer> column = new ArrayList<>(rowCount);
+            for (List<Integer> row : metaList)
+                column.add(row.get(j));
+            columns.add(column);
+        }
+        this.reelWindows = ReelWindows.compile(columns, rowCount, cardMasks != null);
+        showWindows(new int[columnCount]);
+    }
+
+    /**
+     * Checks whether a screen of the given size can be represented by a bitboard (a long) per card.
+     *
+     * @param rowCount The number of rows of the screen.
+     * @param columnCount The number of columns (reels) of the screen.
+     * @return Whether the screen has no more than 64 cells.
+     */
+    public static boolean supportsBitboards(int rowCount, int columnCount) {
+        return rowCount * columnCount <= Long.SIZE;
+    }
 
+    /**
+     * Builds the grid of cards of the current screen, e.g. to render or persist it.
+     * To keep a screen past the next round, {@link #getView()} is cheaper.
+     *
+     * @return A new array, indexed by row, then column.
+     */
+    public int[][] fetchScreen() {
+        int[][] grid = new int[rowCount][columnCount];
         for (int i = 0; i < rowCount; i++)
             for (int j = 0; j < columnCount; j++)
-                view[i][j] = metaList.get(i).get(j);
+                grid[i][j] = getCardAt(i, j);
+        return grid;
     }
 
     /**
-     * Fetches A COPY OF the current reel screen view.
+     * Fetches an immutable view of the current screen, which only holds the dice rolls that generated it.
      *
-     * @return A copy of the current reel screen view.
+     * @return The view of the current screen.
+     * @throws IllegalStateException If the screen was not generated from dice rolls.
      */
-    public int[][] fetchScreen() {
-        return Arrays.copyOf(view, view.length);
+    public ScreenView getView() {
+        if (reelWindows == null || diceRolls == null)
+            throw new IllegalStateException("Screen was not generated from dice rolls");
+        return ScreenView.of(reelWindows, diceRolls);
+    }
+
+    /**
+     * @return The windows the screen shows.
+     */
+    ReelWindows getReelWindows() {
+        return reelWindows;
+    }
+
+    /**
+     * @param column 0-based index of the reel.
+     * @return The index of the first cell of the window the reel shows, see {@link ReelWindows#windowIndex(int, int)}.
+     */
+    int getWindow(int column) {
+        return windows[column];
     }
 
     public int getCardAt(int row, int column) {
-        return view[row][column];
+        if (row < 0 || row >= rowCount)
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount + " rows");
+        return reelWindows.card(windows[column] + row);
+    }
+
+    /**
+     * Fetches the number of times a card is present on screen. The counts are
+     * gathered in the same pass that generates the screen, so this is O(1).
+     *
+     * @param card The card to count.
+     * @return The number of times card is present on screen.
+     */
+    public int getCardCount(int card) {
+        if (card < 0 || card >= cardCounts.length)
+            return 0;
+        return cardMasks != null ? Long.bitCount(cardMasks[card]) : cardCounts[card];
+    }
+
+    /**
+     * Fetches the cells of the screen holding a card, as a bitboard where
+     * bit (row * columnCount + column) is set if the cell holds the card.
+     *
+     * @param card The card.
+     * @return The bitboard of the card.
+     * @throws IllegalStateException If the screen has more than 64 cells.
+     */
+    public long getCardMask(int card) {
+        if (cardMasks == null)
+            throw new IllegalStateException("Screen of " + rowCount + "x" + columnCount + " cells has no bitboards");
+        return card >= 0 && card < cardMasks.length ? cardMasks[card] : 0L;
+    }
+
+    /**
+     * @return Whether the screen keeps a bitboard per card.
+     * @see #getCardMask(int)
+     */
+    public boolean hasBitboards() {
+        return cardMasks != null;
     }
 
     public int getRowCount() {
@@ -71,22 +208,89 @@ public class ReelScreen {
         return diceRolls;
     }
 
+    public RngSource getRngSource() {
+        return rng;
+    }
+
+    /**
+     * Sets the source to draw dice rolls from. Dice rolls a replaced {@link StopBuffer} had drawn
+     * from the previous source are discarded.
+     *
+     * @param rng The source.
+     */
+    public void setRngSource(RngSource rng) {
+        this.rng = rng;
+        this.pendingDiceRolls.clear();
+    }
+
+    public StopBuffer getStopBuffer() {
+        return stopBuffer;
+    }
+
+    /**
+     * Sets a buffer of dice rolls drawn ahead of time, which {@link #generateScreen()} takes its dice rolls from
+     * instead of the screen's {@link RngSource}.
+     *
+     * <br/><br/>
+     * The previous buffer is closed, and the dice rolls it has drawn but not handed out yet are used first,
+     * so the screens come in the same order as if no buffer had been replaced. Close the previous buffer
+     * (set null) before creating a new one on the same source, so that they never draw at the same time.
+     *
+     * @param stopBuffer The buffer, with a stop per reel, or null to draw from the source again.
+     */
+    public void setStopBuffer(StopBuffer stopBuffer) {
+        if (stopBuffer != null && stopBuffer.getReelCount() != randomDiceRolls.length)
+            throw new IllegalArgumentException("Stop buffer has " + stopBuffer.getReelCount()
+                    + " reels instead of " + randomDiceRolls.length);
+        if (this.stopBuffer != null && this.stopBuffer != stopBuffer) {
+            this.stopBuffer.close();
+            while (this.stopBuffer.size() > 0) {
+                int[] diceRolls = new int[randomDiceRolls.length];
+                this.stopBuffer.next(diceRolls);
+                pendingDiceRolls.add(diceRolls);
+            }
+        }
+        this.stopBuffer = stopBuffer;
+    }
+
     /**
-     * Generates a two-dimensional array of integers which represents the game screen.
+     * Generates the game screen from random dice rolls.
+     * The dice rolls left by a replaced {@link StopBuffer} are used first, see {@link #setStopBuffer(StopBuffer)}.
+     * Then they are taken from the screen's {@link StopBuffer} if there is one, otherwise they are drawn
+     * from the screen's {@link RngSource}, into an array owned by the screen which is overwritten by the next call.
+     * Every dice roll is drawn in O(1) by the configuration's {@link StopSampler}, according to the weights
+     * of the reel's stops, if any.
      *
-     * @return The updated screen property.
+     * @return This screen.
      * @see ReelScreen
      */
     public ReelScreen generateScreen() {
-        Random rnd = new Random();
-        int[] diceRolls = new int[config.getScreenColumnCount()];
-        for (int i = 0; i < diceRolls.length; i++)
-            diceRolls[i] = rnd.nextInt(config.getReels().get(0).size());
-        return generateScreen(diceRolls);
+        if (!pendingDiceRolls.isEmpty()) {
+            System.arraycopy(pendingDiceRolls.poll(), 0, randomDiceRolls, 0, randomDiceRolls.length);
+            return generateScreen(randomDiceRolls);
+        }
+        if (stopBuffer != null) {
+            stopBuffer.next(randomDiceRolls);
+            return generateScreen(randomDiceRolls);
+        }
+        stopSampler.sample(rng, randomDiceRolls);
+        return generateScreen(randomDiceRolls);
     }
 
     /**
-     * Generates a two-dimensional array of integers which represents the game screen.
+     * Generates the screen shown by a view, e.g. to evaluate a screen kept from an earlier round.
+     *
+     * @param view The view of the screen.
+     * @return This screen.
+     * @see #generateScreen(int[])
+     */
+    public ReelScreen generateScreen(ScreenView view) {
+        view.copyStops(randomDiceRolls);
+        return generateScreen(randomDiceRolls);
+    }
+
+    /**
+     * Generates the game screen, i.e. makes every reel show its window at the reel's dice roll.
      * The generation is controlled by an array of integers, called 'dice rolls'.
      * Each dice roll corresponds to the initial position in the reel arrays from
      * which the population of the screen reels will begin. If the position is towards
@@ -102,29 +306,45 @@ public class ReelScreen {
      * [6,6,6,1,1,1,0,0,0,3,3,3,4,4,4,2,2,2,5,5,5,1,1,1,7,4,4,4,2,2]
      * <br></br>
      * <br></br>
-     * The elements for the screen array will be the 28th, 29th and 0th (2, 2, 6).
+     * The cards of the reel on the screen will be the 28th, 29th and 0th (2, 2, 6).
+     * <br></br>
+     * <br></br>
+     * The windows of the reels are precomputed (see {@link ReelWindows}), so generating a screen
+     * is a lookup per reel: the screen keeps the reel's window, whose cards are not copied, and the window's
+     * card counts (or bitboards) are added to the screen's.
      * <br></br>
      *
-     * @return The updated screen property.
+     * @param diceRolls The dice rolls, one per reel, each less than the length of its reel.
+     * @return This screen.
      * @see ReelScreen
      */
     public ReelScreen generateScreen(int[] diceRolls) {
 
         this.diceRolls = diceRolls;
+        showWindows(diceRolls);
+        return this;
+    }
+
+    private void showWindows(int[] stops) {
+        if (cardMasks != null)
+            Arrays.fill(cardMasks, 0L);
+        else
+            Arrays.fill(cardCounts, 0);
 
-        var reelArrays = config.getReels();
-        int screenReelSize = config.getScreenRowCount();
-        int screenRowsSize = config.getScreenColumnCount();
-        for (int i = 0; i < screenRowsSize; i++) {
-            int index = diceRolls[i];
-            for (int j = 0; j < screenReelSize; j++) {
-                if (index >= reelArrays.get(i).size())
-                    index = 0;
-                view[j][i] = reelArrays.get(i).get(index);
-                index += 1;
+        for (int i = 0; i < columnCount; i++) {
+            int window = reelWindows.windowIndex(i, stops[i]);
+            windows[i] = window;
+
+            for (int k = window; k < window + rowCount; k++) {
+                int card = reelWindows.distinctCard(k);
+                if (card < 0)
+                    break;
+                if (cardMasks != null)
+                    cardMasks[card] |= reelWindows.distinctMask(k);
+                else
+                    cardCounts[card] += reelWindows.distinctCount(k);
             }
         }
-        return this;
     }
 
     @Override
@@ -133,7 +353,7 @@ public class ReelScreen {
 
         for (int i = 0; i < this.rowCount; i++) {
             for (int j = 0; j < this.columnCount; j++)
-                sb.append(String.format("%-3s", this.view[i][j]));
+                sb.append(String.format("%-3s", getCardAt(i, j)));
             sb.append(System.lineSeparator());
         }
 
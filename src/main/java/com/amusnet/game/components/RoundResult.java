@@ -0,0 +1,218 @@
+package com.amusnet.game.components;
+
+/**
+ * The outcome of a round, i.e. the line wins, the scatter wins, their total and
+ * the dice rolls that generated the screen. All amounts are in minor units.
+ * <br/><br/>
+ * The outcome is first of all the multipliers of the screen, which do not depend on the bet:
+ * the total line multiplier (in line bets) and the scatter multiplier (in total bets). The win amounts
+ * are those multipliers times the bet, applied once, so outcomes evaluated or tallied by their multipliers
+ * hold for any bet.
+ * <br/><br/>
+ * Instances are owned by a {@link GameRound} and are reused: every round overwrites the
+ * previous result, so that evaluating a round does not allocate. Callers that need to keep
+ * a result past the next round should copy the values they are interested in.
+ */
+public class RoundResult {
+
+    private int linesPlayed;
+    private long betAmount;
+
+    private final LineWin[] lineWins;
+
+    private final int[] scatters;
+    private final int[] scatterCounts;
+    private final int[] scatterMultipliers;
+    private final long[] scatterWins;
+
+    // [k]: sum of the multipliers of the first k lines
+    private final long[] cumulativeLineMultipliers;
+    private long winFromLines, winFromScatters;
+
+    private final int[] diceRolls;
+    private boolean hasDiceRolls;
+
+    RoundResult(int lineCount, int[] scatters, int columnCount) {
+        this.lineWins = new LineWin[lineCount];
+        this.cumulativeLineMultipliers = new long[lineCount + 1];
+        for (int i = 0; i < lineCount; i++)
+            this.lineWins[i] = new LineWin();
+        this.scatters = scatters;
+        this.scatterCounts = new int[scatters.length];
+        this.scatterMultipliers = new int[scatters.length];
+        this.scatterWins = new long[scatters.length];
+        this.diceRolls = new int[columnCount];
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public int getLinesPlayed() {
+        return linesPlayed;
+    }
+
+    public long getBetAmount() {
+        return betAmount;
+    }
+
+    /**
+     * Fetches the outcome of a played line.
+     *
+     * @param line 0-based index of the line, less than {@link #getLinesPlayed()}.
+     * @return The outcome of the line.
+     */
+    public LineWin getLineWin(int line) {
+        if (line >= linesPlayed)
+            throw new IndexOutOfBoundsException("Line " + line + " was not played");
+        return lineWins[line];
+    }
+
+    /**
+     * @return The number of scatter cards in the configuration.
+     */
+    public int getScatterTypeCount() {
+        return scatters.length;
+    }
+
+    /**
+     * @param index 0-based index of the scatter card, in configuration order.
+     * @return The scatter card.
+     */
+    public int getScatter(int index) {
+        return scatters[index];
+    }
+
+    /**
+     * @param index 0-based index of the scatter card, in configuration order.
+     * @return The number of times the scatter card is present on screen.
+     */
+    public int getScatterCount(int index) {
+        return scatterCounts[index];
+    }
+
+    /**
+     * @param index 0-based index of the scatter card, in configuration order.
+     * @return The multiplier of the total bet for the scatter card, independent of the bet.
+     */
+    public int getScatterMultiplier(int index) {
+        return scatterMultipliers[index];
+    }
+
+    /**
+     * @return The sum of the multipliers of the total bet for all scatter cards, independent of the bet.
+     */
+    public long getScatterMultiplier() {
+        long scatterMultiplier = 0;
+        for (int multiplier : scatterMultipliers)
+            scatterMultiplier += multiplier;
+        return scatterMultiplier;
+    }
+
+    /**
+     * @return The sum of the multipliers of all played lines, i.e. the win from lines in line bets,
+     * independent of the bet.
+     */
+    public long getLineMultiplier() {
+        return cumulativeLineMultipliers[linesPlayed];
+    }
+
+    /**
+     * Fetches the line multiplier the screen would have had for fewer lines played. The multipliers for
+     * every line count come from the single evaluation of the played lines, as prefix sums.
+     *
+     * @param lines A number of lines, at most {@link #getLinesPlayed()}.
+     * @return The sum of the multipliers of the first lines, i.e. the win from lines in line bets
+     * had only those lines been played.
+     */
+    public long getLineMultiplier(int lines) {
+        if (lines < 0 || lines > linesPlayed)
+            throw new IndexOutOfBoundsException("Lines " + lines + " of " + linesPlayed + " played");
+        return cumulativeLineMultipliers[lines];
+    }
+
+    /**
+     * @return The total win in line bets, independent of the bet: the line multiplier plus
+     * the scatter multiplier times the lines played.
+     */
+    public long getTotalMultiplier() {
+        return getTotalMultiplier(linesPlayed);
+    }
+
+    /**
+     * @param lines A number of lines, at most {@link #getLinesPlayed()}.
+     * @return The total win in line bets the screen would have had for that many lines played.
+     * @see #getLineMultiplier(int)
+     */
+    public long getTotalMultiplier(int lines) {
+        return getLineMultiplier(lines) + getScatterMultiplier() * lines;
+    }
+
+    /**
+     * @param index 0-based index of the scatter card, in configuration order.
+     * @return The win amount for the scatter card.
+     */
+    public long getScatterWin(int index) {
+        return scatterWins[index];
+    }
+
+    public long getWinFromLines() {
+        return winFromLines;
+    }
+
+    /**
+     * @return The win amount from the last scatter card in configuration order (the only one, by default).
+     */
+    public long getWinFromScatters() {
+        return winFromScatters;
+    }
+
+    public long getTotalWin() {
+        long totalWin = winFromLines;
+        for (long scatterWin : scatterWins)
+            totalWin += scatterWin;
+        return totalWin;
+    }
+
+    /**
+     * Fetches the dice rolls that generated the screen of the round.
+     * The returned array is overwritten by the next round.
+     *
+     * @return The dice rolls, or null if the screen was not generated from dice rolls.
+     */
+    public int[] getDiceRolls() {
+        return hasDiceRolls ? diceRolls : null;
+    }
+
+    //******************
+    //* UPDATE METHODS *
+    //******************
+
+    LineWin lineWin(int line) {
+        return lineWins[line];
+    }
+
+    void reset(int linesPlayed, long betAmount, int[] diceRolls) {
+        this.linesPlayed = linesPlayed;
+        this.betAmount = betAmount;
+        this.hasDiceRolls = diceRolls != null;
+        if (hasDiceRolls)
+            System.arraycopy(diceRolls, 0, this.diceRolls, 0, this.diceRolls.length);
+    }
+
+    void setLineMultiplier(int line, long cumulativeLineMultiplier) {
+        this.cumulativeLineMultipliers[line + 1] = cumulativeLineMultiplier;
+    }
+
+    void applyBetToLines() {
+        this.winFromLines = betAmount * getLineMultiplier();
+    }
+
+    void setScatterMultiplier(int index, int scatterCount, int scatterMultiplier) {
+        this.scatterCounts[index] = scatterCount;
+        this.scatterMultipliers[index] = scatterMultiplier;
+        this.scatterWins[index] = linesPlayed * betAmount * scatterMultiplier;
+        this.winFromScatters = scatterWins[index];
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.amusnet.game.components;
+
+import com.amusnet.config.ReelWindows;
+
+import java.util.Arrays;
+
+/**
+ * An immutable screen, held as the stop of each reel only. Cards are resolved against the
+ * precomputed reel windows when asked for, so a view costs an int per reel, however many rows
+ * the screen has, and many views can be kept (e.g. in simulation or replay) at little cost.
+ * <br/><br/>
+ * A grid of cards is only built by {@link #toGrid()} and {@link #toString()}, for rendering or persisting.
+ *
+ * @see ReelScreen#getView()
+ * @see ReelWindows
+ */
+public final class ScreenView {
+
+    private final ReelWindows reelWindows;
+    private final int[] stops;
+
+    private ScreenView(ReelWindows reelWindows, int[] stops) {
+        this.reelWindows = reelWindows;
+        this.stops = stops;
+    }
+
+    /**
+     * Creates a view of the screen shown by a set of reel stops.
+     *
+     * @param reelWindows The windows of the reels.
+     * @param stops The stop of each reel, which is copied.
+     * @return The view.
+     * @throws IllegalArgumentException If there is not a stop for every reel.
+     * @throws IndexOutOfBoundsException If a stop is out of bounds for its reel.
+     */
+    public static ScreenView of(ReelWindows reelWindows, int[] stops) {
+        if (stops.length != reelWindows.getReelCount())
+            throw new IllegalArgumentException(stops.length + " stops for " + reelWindows.getReelCount() + " reels");
+        for (int i = 0; i < stops.length; i++)
+            reelWindows.windowIndex(i, stops[i]);
+        return new ScreenView(reelWindows, stops.clone());
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public int getRowCount() {
+        return reelWindows.getRowCount();
+    }
+
+    public int getColumnCount() {
+        return stops.length;
+    }
+
+    public int getCardAt(int row, int column) {
+        if (row < 0 || row >= reelWindows.getRowCount())
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + reelWindows.getRowCount() + " rows");
+        return reelWindows.card(reelWindows.windowIndex(column, stops[column]) + row);
+    }
+
+    /**
+     * @param column 0-based index of the reel.
+     * @return The stop of the reel.
+     */
+    public int getStop(int column) {
+        return stops[column];
+    }
+
+    /**
+     * Copies the stops of the reels, e.g. to generate the screen with {@link ReelScreen#generateScreen(int[])}.
+     *
+     * @param destination The array to copy the stops into, one per reel.
+     */
+    public void copyStops(int[] destination) {
+        System.arraycopy(stops, 0, destination, 0, stops.length);
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Builds the grid of cards of the screen.
+     *
+     * @return A new array, indexed by row, then column.
+     */
+    public int[][] toGrid() {
+        int[][] grid = new int[getRowCount()][stops.length];
+        for (int j = 0; j < stops.length; j++) {
+            int window = reelWindows.windowIndex(j, stops[j]);
+            for (int i = 0; i < grid.length; i++)
+                grid[i][j] = reelWindows.card(window + i);
+        }
+        return grid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ScreenView other)) return false;
+        return reelWindows == other.reelWindows && Arrays.equals(stops, other.stops);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(stops);
+    }
+
+    /**
+     * @return The grid of cards, in the same layout as {@link ReelScreen#toString()}.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int[] row : toGrid()) {
+            for (int card : row)
+                sb.append(String.format("%-3s", card));
+            sb.append(System.lineSeparator());
+        }
+
+        return sb.toString();
+    }
+
+}
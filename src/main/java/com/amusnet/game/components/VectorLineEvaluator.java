@@ -0,0 +1,64 @@
+package com.amusnet.game.components;
+
+import com.amusnet.config.GameConfig;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link LaneLineEvaluator} that computes the streaks of all lines with the JDK Vector API, as many lines
+ * per instruction as the CPU has int lanes: the wildcard streak and the potential winning streak are counted
+ * with lane masks, and the potential winning card is picked by blending the columns.
+ * <br/><br/>
+ * Compiled only by the vector-api build profile, and needs --add-modules jdk.incubator.vector at runtime,
+ * see {@link LaneLineEvaluator#vectorApi(GameConfig)}.
+ */
+public class VectorLineEvaluator extends LaneLineEvaluator {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    public VectorLineEvaluator(GameConfig config) {
+        super(config, SPECIES.length());
+    }
+
+    @Override
+    public void evaluate(ReelScreen screen, int lineCount) {
+        gather(screen, lineCount);
+
+        // the lanes are allocated in whole vectors, lanes past lineCount are computed and ignored
+        for (int l = 0; l < lineCount; l += SPECIES.length()) {
+
+            // wildcards in the beginning of the lines, and anywhere in the lines
+            VectorMask<Integer> alive = SPECIES.maskAll(true);
+            VectorMask<Integer> containsWildcard = SPECIES.maskAll(false);
+            IntVector wildcardOccurrences = IntVector.zero(SPECIES);
+            for (int j = 0; j < columnCount; j++) {
+                VectorMask<Integer> isWildcard = IntVector.fromArray(SPECIES, cards[j], l).eq(wildcard);
+                alive = alive.and(isWildcard);
+                wildcardOccurrences = wildcardOccurrences.add(1, alive);
+                containsWildcard = containsWildcard.or(isWildcard);
+            }
+
+            // first card that is not a wildcard (the wildcard itself if all cards are wildcards)
+            IntVector potentialWinningCards = IntVector.broadcast(SPECIES, wildcard);
+            for (int j = 0; j < columnCount; j++)
+                potentialWinningCards = potentialWinningCards.blend(IntVector.fromArray(SPECIES, cards[j], l),
+                        wildcardOccurrences.eq(j));
+
+            // cards in the beginning of the lines that are the potential winning card or a wildcard
+            alive = SPECIES.maskAll(true);
+            IntVector potentialOccurrences = IntVector.zero(SPECIES);
+            for (int j = 0; j < columnCount; j++) {
+                IntVector column = IntVector.fromArray(SPECIES, cards[j], l);
+                alive = alive.and(column.eq(potentialWinningCards).or(column.eq(wildcard)));
+                potentialOccurrences = potentialOccurrences.add(1, alive);
+            }
+
+            IntVector.zero(SPECIES).blend(1, containsWildcard).intoArray(this.containsWildcard, l);
+            wildcardOccurrences.intoArray(this.wildcardOccurrences, l);
+            potentialWinningCards.intoArray(this.potentialWinningCards, l);
+            potentialOccurrences.intoArray(this.potentialOccurrences, l);
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.amusnet.rng;
+
+import java.util.Arrays;
+
+/**
+ * Samples one of n outcomes with integer weights in O(1), by Vose's alias method.
+ * <br/><br/>
+ * The outcomes are dealt into n columns of height W (the total weight), each column holding at most
+ * two outcomes: its own outcome up to its threshold, and its alias above. A sample picks a column
+ * uniformly, then a height u uniformly in [0, W), and returns the column's outcome if u is below the
+ * threshold, otherwise the alias.
+ * <br/><br/>
+ * Since the weights are scaled by n instead of divided by W, the thresholds are integers and outcome i
+ * is returned with probability exactly w_i / W, with no floating point rounding. Columns filled by their own
+ * outcome only (e.g. all columns of equal weights) take a single draw, so sampling from a table of equal
+ * weights draws exactly the same numbers as {@code nextInt(n)}.
+ */
+public final class AliasTable {
+
+    private final long[] weights;
+    private final long totalWeight;
+
+    // indexed by column
+    private final long[] thresholds;
+    private final int[] aliases;
+
+    private AliasTable(long[] weights, long totalWeight, long[] thresholds, int[] aliases) {
+        this.weights = weights;
+        this.totalWeight = totalWeight;
+        this.thresholds = thresholds;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Builds the table of n outcomes of weight 1.
+     *
+     * @param size The number of outcomes, positive.
+     * @return The table.
+     */
+    public static AliasTable uniform(int size) {
+        long[] weights = new long[size];
+        Arrays.fill(weights, 1);
+        return of(weights);
+    }
+
+    /**
+     * Builds the table of weighted outcomes.
+     *
+     * @param weights The weight of each outcome. Outcomes of weight 0 are never sampled.
+     * @return The table.
+     * @throws IllegalArgumentException If there are no outcomes, a weight is negative, all weights are 0,
+     *                                  or the total weight times the number of outcomes overflows a long.
+     */
+    public static AliasTable of(long[] weights) {
+        int n = weights.length;
+        if (n == 0)
+            throw new IllegalArgumentException("No outcomes to sample");
+
+        long totalWeight = 0;
+        long[] scaled = new long[n];
+        try {
+            for (long weight : weights) {
+                if (weight < 0)
+                    throw new IllegalArgumentException("Negative weight: " + weight);
+                totalWeight = Math.addExact(totalWeight, weight);
+            }
+            Math.multiplyExact(totalWeight, n);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Total weight is too large", e);
+        }
+        if (totalWeight == 0)
+            throw new IllegalArgumentException("All weights are 0");
+
+        // columns below and at or above the full height, used as stacks
+        int[] small = new int[n], large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n;
+            if (scaled[i] < totalWeight)
+                small[smallCount++] = i;
+            else
+                large[largeCount++] = i;
+        }
+
+        // top up every small column with a large outcome, which may become small in turn
+        long[] thresholds = new long[n];
+        int[] aliases = new int[n];
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount], more = large[--largeCount];
+            thresholds[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] -= totalWeight - scaled[less];
+            if (scaled[more] < totalWeight)
+                small[smallCount++] = more;
+            else
+                large[largeCount++] = more;
+        }
+
+        // the scaled weights sum up to n * totalWeight exactly, so the columns left are full
+        while (largeCount > 0) {
+            int more = large[--largeCount];
+            thresholds[more] = totalWeight;
+            aliases[more] = more;
+        }
+        while (smallCount > 0) {
+            int less = small[--smallCount];
+            thresholds[less] = totalWeight;
+            aliases[less] = less;
+        }
+
+        return new AliasTable(weights.clone(), totalWeight, thresholds, aliases);
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    /**
+     * @return The number of outcomes.
+     */
+    public int getSize() {
+        return weights.length;
+    }
+
+    /**
+     * @param outcome 0-based index of the outcome.
+     * @return The weight of the outcome.
+     */
+    public long getWeight(int outcome) {
+        return weights[outcome];
+    }
+
+    /**
+     * @return The sum of the weights of all outcomes.
+     */
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return Whether all outcomes have the same weight.
+     */
+    public boolean isUniform() {
+        for (long weight : weights)
+            if (weight != weights[0])
+                return false;
+        return true;
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Draws an outcome: a column, then a height if the column holds an alias.
+     *
+     * @param rng The source to draw from.
+     * @return 0-based index of the outcome.
+     */
+    public int sample(RngSource rng) {
+        int column = rng.nextInt(weights.length);
+        if (thresholds[column] == totalWeight)
+            return column;
+        return sample(column, rng.nextLong(totalWeight));
+    }
+
+    /**
+     * Finds the outcome at a height of a column. Every (column, height) pair is equally likely,
+     * and outcome i is found at exactly n * w_i of the n * W pairs.
+     *
+     * @param column The column, in [0, n).
+     * @param height The height, in [0, W).
+     * @return 0-based index of the outcome.
+     */
+    public int sample(int column, long height) {
+        return height < thresholds[column] ? column : aliases[column];
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.amusnet.rng;
+
+/**
+ * A counter-based source: the numbers of spin s are a pure function of (seed, s), so the source can
+ * {@link #seek(long)} to any spin in O(1), without drawing the numbers of the spins before it.
+ * <br/><br/>
+ * Every spin has its own SplitMix64 stream: the stream's start is a hash of the seed and the spin, and its
+ * k-th output is the 64-bit finalizer of MurmurHash3 (Stafford's variant 13) applied to start + k * gamma,
+ * the same construction as {@link java.util.SplittableRandom}.
+ */
+class CounterRngSource implements RngSource {
+
+    static final String ALGORITHM = "Counter";
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long key;
+    private long spin;
+    private long state;
+
+    CounterRngSource(long seed) {
+        this.key = mix64(seed);
+        seek(0);
+    }
+
+    /**
+     * Moves to the beginning of a spin's numbers.
+     *
+     * @param spin 0-based index of the spin.
+     */
+    void seek(long spin) {
+        this.spin = spin;
+        this.state = mix64(key + spin * GOLDEN_GAMMA);
+    }
+
+    long getSpin() {
+        return spin;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("Bound must be positive: " + bound);
+        int m = bound - 1;
+        int r = (int) (nextLong() >>> 33);
+        if ((bound & m) == 0)
+            return r & m;
+        // reject the last, incomplete interval of multiples of bound
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33))
+            ;
+        return r;
+    }
+
+    @Override
+    public long nextLong(long bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("Bound must be positive: " + bound);
+        long m = bound - 1;
+        long r = nextLong() >>> 1;
+        if ((bound & m) == 0)
+            return r & m;
+        for (long u = r; u - (r = u % bound) + m < 0; u = nextLong() >>> 1)
+            ;
+        return r;
+    }
+
+    @Override
+    public RngSource split() {
+        return new CounterRngSource(nextLong());
+    }
+
+    @Override
+    public String toString() {
+        return ALGORITHM;
+    }
+
+    private long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.amusnet.rng;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A source backed by a generator of the {@link RandomGenerator} family, e.g. L64X128MixRandom,
+ * which splits, or Xoshiro256PlusPlus, which jumps: a split source takes the current state and this
+ * source jumps ahead, so the two never overlap.
+ */
+class RandomGeneratorRngSource implements RngSource {
+
+    private final RandomGenerator rnd;
+
+    RandomGeneratorRngSource(RandomGenerator rnd) {
+        if (!(rnd instanceof RandomGenerator.SplittableGenerator) && !(rnd instanceof RandomGenerator.JumpableGenerator))
+            throw new IllegalArgumentException(rnd.getClass().getSimpleName() + " can neither split nor jump");
+        this.rnd = rnd;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return rnd.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong(long bound) {
+        return rnd.nextLong(bound);
+    }
+
+    @Override
+    public RngSource split() {
+        if (rnd instanceof RandomGenerator.SplittableGenerator splittable)
+            return new RandomGeneratorRngSource(splittable.split());
+        return new RandomGeneratorRngSource(((RandomGenerator.JumpableGenerator) rnd).copyAndJump());
+    }
+
+    @Override
+    public String toString() {
+        return rnd.getClass().getSimpleName();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.amusnet.rng;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * A source of random numbers for generating screens.
+ * <br/><br/>
+ * Sources are not thread-safe (except for {@link #threadLocal()}): every session or thread should own a source,
+ * created from a seed or split from another source, so that drawing numbers needs no synchronization.
+ */
+public interface RngSource {
+
+    /**
+     * @param bound The upper bound, exclusive. Must be positive.
+     * @return A uniformly distributed int in [0, bound).
+     */
+    int nextInt(int bound);
+
+    /**
+     * @param bound The upper bound, exclusive. Must be positive.
+     * @return A uniformly distributed long in [0, bound).
+     */
+    long nextLong(long bound);
+
+    /**
+     * Creates a new source, statistically independent of this one, e.g. for another thread.
+     * For a seeded source, the new source is determined by the state of this source.
+     *
+     * @return The new source.
+     */
+    RngSource split();
+
+    /**
+     * @param seed The seed.
+     * @return A source backed by a {@link java.util.SplittableRandom}.
+     */
+    static RngSource splittable(long seed) {
+        return new SplittableRngSource(seed);
+    }
+
+    /**
+     * @return A source backed by the {@link java.util.concurrent.ThreadLocalRandom} of the calling thread,
+     * which cannot be seeded.
+     */
+    static RngSource threadLocal() {
+        return ThreadLocalRngSource.INSTANCE;
+    }
+
+    /**
+     * Creates a source backed by a generator of the {@link RandomGenerator} family.
+     *
+     * @param algorithm The name of the algorithm, e.g. "L64X128MixRandom" or "Xoshiro256PlusPlus".
+     *                  The generator must be splittable or jumpable. "Counter" stands for the counter-based
+     *                  source of {@link SeededSession}, positioned at spin 0.
+     * @param seed The seed.
+     * @return The source.
+     * @throws IllegalArgumentException If there is no such algorithm, or it can neither split nor jump.
+     */
+    static RngSource of(String algorithm, long seed) {
+        return switch (algorithm) {
+            case SplittableRngSource.ALGORITHM -> splittable(seed);
+            case ThreadLocalRngSource.ALGORITHM -> threadLocal();
+            case CounterRngSource.ALGORITHM -> new CounterRngSource(seed);
+            default -> new RandomGeneratorRngSource(RandomGeneratorFactory.of(algorithm).create(seed));
+        };
+    }
+
+}
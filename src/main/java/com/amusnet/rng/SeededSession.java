@@ -0,0 +1,73 @@
+package com.amusnet.rng;
+
+/**
+ * The reel stops of a session played from a recorded seed.
+ * <br/><br/>
+ * The stops of every spin are drawn from a counter-based source (see {@link RngSource#of(String, long)} with
+ * algorithm "Counter") positioned at the spin, so the stops of any spin of the session are a pure function
+ * of the seed and the spin's index. An audit only needs the seed to reconstruct a spin, in O(1), with
+ * {@link #stopsOf(long, int[])}, e.g. to feed {@link com.amusnet.game.components.ReelScreen#generateScreen(int[])}.
+ * <br/><br/>
+ * A session is not thread-safe.
+ */
+public final class SeededSession {
+
+    private final long seed;
+    private final StopSampler sampler;
+    private final CounterRngSource rng;
+    private long nextSpin;
+
+    /**
+     * @param seed The seed of the session.
+     * @param sampler The sampler of the reels' stops, which must be the same for the replay as for the session.
+     */
+    public SeededSession(long seed, StopSampler sampler) {
+        this.seed = seed;
+        this.sampler = sampler;
+        this.rng = new CounterRngSource(seed);
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return 0-based index of the spin {@link #next(int[])} draws the stops of.
+     */
+    public long getNextSpin() {
+        return nextSpin;
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Draws the stops of the next spin of the session.
+     *
+     * @param stops The array to store the stops in, one per reel.
+     * @return 0-based index of the spin.
+     */
+    public long next(int[] stops) {
+        stopsOf(nextSpin, stops);
+        return nextSpin++;
+    }
+
+    /**
+     * Reconstructs the stops of any spin of the session in O(1), without affecting {@link #next(int[])}.
+     *
+     * @param spin 0-based index of the spin.
+     * @param stops The array to store the stops in, one per reel.
+     */
+    public void stopsOf(long spin, int[] stops) {
+        if (spin < 0)
+            throw new IndexOutOfBoundsException("Invalid spin: " + spin);
+        rng.seek(spin);
+        sampler.sample(rng, stops);
+    }
+
+}
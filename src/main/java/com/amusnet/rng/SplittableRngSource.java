@@ -0,0 +1,42 @@
+package com.amusnet.rng;
+
+import java.util.SplittableRandom;
+
+/**
+ * A source backed by a {@link SplittableRandom}.
+ */
+class SplittableRngSource implements RngSource {
+
+    static final String ALGORITHM = "SplittableRandom";
+
+    private final SplittableRandom rnd;
+
+    SplittableRngSource(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SplittableRngSource(SplittableRandom rnd) {
+        this.rnd = rnd;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return rnd.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong(long bound) {
+        return rnd.nextLong(bound);
+    }
+
+    @Override
+    public RngSource split() {
+        return new SplittableRngSource(rnd.split());
+    }
+
+    @Override
+    public String toString() {
+        return ALGORITHM;
+    }
+
+}
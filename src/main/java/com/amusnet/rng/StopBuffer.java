@@ -0,0 +1,213 @@
+package com.amusnet.rng;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A ring buffer of reel stops (dice rolls) drawn ahead of time by a background producer,
+ * so that generating a screen only has to copy a few ints.
+ * <br/><br/>
+ * The buffer holds up to capacity sets of stops, one stop per reel. When a set is taken and no more
+ * than lowWaterMark sets are left, a refill is scheduled on a shared daemon executor. The refill draws
+ * the missing sets outside the lock, so the consumer is never blocked by the random number source,
+ * unless it empties the buffer faster than it is refilled.
+ * <br/><br/>
+ * There is a single producer, which draws from the source in order, and a single consumer: the stops
+ * come out in exactly the order they would be drawn from the source directly, so a seeded session is
+ * reproducible with or without a buffer. The source is owned by the buffer and must not be used elsewhere.
+ * The stops are drawn by a {@link StopSampler}, so weighted reels are buffered as well.
+ */
+public class StopBuffer implements AutoCloseable {
+
+    private static final ExecutorService REFILL_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stop-buffer-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final RngSource rng;
+    private final StopSampler sampler;
+    private final int reelCount;
+    private final int capacity;
+    private final int lowWaterMark;
+
+    // sets of stops, one after the other
+    private final int[] ring;
+    private final int[] refillChunk;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int head, count;
+    private boolean refilling, closed;
+    private RuntimeException refillFailure;
+
+    /**
+     * Creates a buffer, which is filled before the constructor returns.
+     *
+     * @param rng The source to draw from, owned by the buffer from now on.
+     * @param sampler The sampler of the reels' stops.
+     * @param capacity The number of sets of stops the buffer holds.
+     * @param lowWaterMark The number of sets left which triggers a refill, less than capacity.
+     */
+    public StopBuffer(RngSource rng, StopSampler sampler, int capacity, int lowWaterMark) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Invalid stop buffer capacity: " + capacity);
+        if (lowWaterMark < 0 || lowWaterMark >= capacity)
+            throw new IllegalArgumentException("Invalid low-water mark " + lowWaterMark + " for capacity " + capacity);
+        this.rng = rng;
+        this.sampler = sampler;
+        this.reelCount = sampler.getReelCount();
+        this.capacity = capacity;
+        this.lowWaterMark = lowWaterMark;
+        this.ring = new int[capacity * reelCount];
+        this.refillChunk = new int[ring.length];
+
+        refilling = true;
+        refill();
+        if (refillFailure != null)
+            throw refillFailure;
+    }
+
+    /**
+     * Creates a buffer which is refilled when a quarter of it is left.
+     *
+     * @see #StopBuffer(RngSource, StopSampler, int, int)
+     */
+    public StopBuffer(RngSource rng, StopSampler sampler, int capacity) {
+        this(rng, sampler, capacity, capacity / 4);
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getLowWaterMark() {
+        return lowWaterMark;
+    }
+
+    /**
+     * @return The number of reels, i.e. the number of stops in a set.
+     */
+    public int getReelCount() {
+        return reelCount;
+    }
+
+    /**
+     * @return The number of sets of stops currently in the buffer.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Takes the next set of stops, waiting for a refill if the buffer is empty.
+     *
+     * @param stops The array to copy the stops into, one per reel.
+     * @throws IllegalStateException If the buffer is empty and closed, or the last refill failed.
+     */
+    public void next(int[] stops) {
+        lock.lock();
+        try {
+            while (count == 0) {
+                if (refillFailure != null)
+                    throw new IllegalStateException("Stop buffer refill failed", refillFailure);
+                if (closed)
+                    throw new IllegalStateException("Stop buffer is closed");
+                requestRefill();
+                notEmpty.awaitUninterruptibly();
+            }
+
+            System.arraycopy(ring, head * reelCount, stops, 0, reelCount);
+            head = (head + 1) % capacity;
+            --count;
+
+            if (count <= lowWaterMark)
+                requestRefill();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops refilling the buffer, waiting for a refill in progress to finish, so the source
+     * can be used elsewhere once this returns. The sets already in the buffer can still be taken.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            while (refilling)
+                notEmpty.awaitUninterruptibly();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //*************************
+    //* HEAVY-LIFTING METHODS *
+    //*************************
+
+    // lock must be held
+    private void requestRefill() {
+        if (refilling || closed || refillFailure != null)
+            return;
+        refilling = true;
+        REFILL_EXECUTOR.execute(this::refill);
+    }
+
+    private void refill() {
+        int missing;
+        lock.lock();
+        try {
+            missing = capacity - count;
+        } finally {
+            lock.unlock();
+        }
+
+        // draw outside the lock: only this refill adds to the buffer, so the space can only grow meanwhile
+        RuntimeException failure = null;
+        int[] stops = new int[reelCount];
+        try {
+            for (int set = 0; set < missing; set++) {
+                sampler.sample(rng, stops);
+                System.arraycopy(stops, 0, refillChunk, set * reelCount, reelCount);
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        lock.lock();
+        try {
+            if (failure != null)
+                refillFailure = failure;
+            else
+                for (int set = 0; set < missing; set++) {
+                    int tail = (head + count) % capacity;
+                    System.arraycopy(refillChunk, set * reelCount, ring, tail * reelCount, reelCount);
+                    ++count;
+                }
+            refilling = false;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.amusnet.rng;
+
+/**
+ * Draws the stops of all reels, one {@link AliasTable} per reel, so that each stop is drawn
+ * in O(1) whether the reel's stops are weighted or not.
+ * <br/><br/>
+ * A reel of equal weights draws its stop with a single {@code nextInt(reelLength)}, so a sampler without
+ * weights draws exactly the same numbers as drawing every stop uniformly.
+ */
+public final class StopSampler {
+
+    private final AliasTable[] reels;
+    private final boolean weighted;
+
+    private StopSampler(AliasTable[] reels) {
+        if (reels.length == 0)
+            throw new IllegalArgumentException("No reels to sample");
+        this.reels = reels;
+        boolean weighted = false;
+        for (AliasTable reel : reels)
+            weighted |= !reel.isUniform();
+        this.weighted = weighted;
+    }
+
+    /**
+     * @param reelLengths The number of stops of each reel.
+     * @return A sampler drawing every stop of a reel with the same probability.
+     */
+    public static StopSampler uniform(int... reelLengths) {
+        AliasTable[] reels = new AliasTable[reelLengths.length];
+        for (int i = 0; i < reels.length; i++)
+            reels[i] = AliasTable.uniform(reelLengths[i]);
+        return new StopSampler(reels);
+    }
+
+    /**
+     * @param reels The table of stop weights of each reel.
+     * @return A sampler drawing the stops of each reel by their weights.
+     */
+    public static StopSampler of(AliasTable... reels) {
+        return new StopSampler(reels.clone());
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public int getReelCount() {
+        return reels.length;
+    }
+
+    /**
+     * @param reel 0-based index of the reel.
+     * @return The number of stops of the reel.
+     */
+    public int getReelLength(int reel) {
+        return reels[reel].getSize();
+    }
+
+    /**
+     * @param reel 0-based index of the reel.
+     * @param stop 0-based index of the stop.
+     * @return The weight of the stop, i.e. the number of virtual stops it takes up.
+     */
+    public long getWeight(int reel, int stop) {
+        return reels[reel].getWeight(stop);
+    }
+
+    /**
+     * @param reel 0-based index of the reel.
+     * @return The sum of the weights of the reel's stops (its length, if the reel is not weighted).
+     */
+    public long getTotalWeight(int reel) {
+        return reels[reel].getTotalWeight();
+    }
+
+    /**
+     * @return Whether the stops of any reel have different weights.
+     */
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Draws a stop for every reel.
+     *
+     * @param rng The source to draw from.
+     * @param stops The array to store the stops in, one per reel.
+     */
+    public void sample(RngSource rng, int[] stops) {
+        for (int i = 0; i < reels.length; i++)
+            stops[i] = reels[i].sample(rng);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.amusnet.rng;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A source backed by the {@link ThreadLocalRandom} of the calling thread. It cannot be seeded,
+ * and since every thread draws from its own generator anyway, splitting returns the same source.
+ */
+class ThreadLocalRngSource implements RngSource {
+
+    static final String ALGORITHM = "ThreadLocalRandom";
+
+    static final ThreadLocalRngSource INSTANCE = new ThreadLocalRngSource();
+
+    private ThreadLocalRngSource() {
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public long nextLong(long bound) {
+        return ThreadLocalRandom.current().nextLong(bound);
+    }
+
+    @Override
+    public RngSource split() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return ALGORITHM;
+    }
+
+}
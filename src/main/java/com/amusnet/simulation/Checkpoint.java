@@ -0,0 +1,222 @@
+package com.amusnet.simulation;
+
+import com.amusnet.config.GameConfig;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The state of a long simulation or enumeration, saved to a compact binary file so that the job can be
+ * resumed where it stopped: the job it belongs to, how far the job got (the next spin or combination to play),
+ * and the accumulators of everything played so far. Since the rounds before that position are folded into the
+ * accumulators in a fixed order, a resumed job ends with exactly the same result as an uninterrupted one.
+ * <br/><br/>
+ * A checkpoint is written to a temporary file first, which then replaces the previous checkpoint,
+ * so a job stopped while writing leaves the previous checkpoint intact.
+ */
+final class Checkpoint {
+
+    static final byte SIMULATION = 1;
+    static final byte ENUMERATION = 2;
+
+    private static final int MAGIC = 0x534C4F54;     // "SLOT"
+    private static final int VERSION = 3;
+
+    final byte kind;
+    final long fingerprint;
+    final int linesPlayed;
+    final long seed;
+    final long position;
+    final WinTally tally;
+
+    /**
+     * @param kind {@link #SIMULATION} or {@link #ENUMERATION}.
+     * @param fingerprint The fingerprint of the configuration, see {@link #fingerprint(GameConfig)}.
+     * @param linesPlayed The number of lines bet on.
+     * @param seed The master seed of a simulation, 0 for an enumeration.
+     * @param position The next spin or combination to play.
+     * @param tally The tally of everything played so far.
+     */
+    Checkpoint(byte kind, long fingerprint, int linesPlayed, long seed, long position, WinTally tally) {
+        this.kind = kind;
+        this.fingerprint = fingerprint;
+        this.linesPlayed = linesPlayed;
+        this.seed = seed;
+        this.position = position;
+        this.tally = tally;
+    }
+
+    /**
+     * Computes a fingerprint of the parts of a configuration that decide the outcome of a round: screen size,
+     * reels and their weights, lines, scatters, wildcard and multipliers. The fingerprint is the first 64 bits
+     * of the SHA-256 digest of their values, written in a fixed order, so it is the same in every JVM.
+     *
+     * @param config The configuration.
+     * @return The fingerprint.
+     */
+    static long fingerprint(GameConfig config) {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(config.getScreenRowCount());
+            out.writeInt(config.getScreenColumnCount());
+            writeLists(out, config.getReels());
+            writeLists(out, config.getReelWeights());
+            writeLists(out, config.getLines());
+            var scatters = new TreeSet<>(config.getScatters());
+            out.writeInt(scatters.size());
+            for (int scatter : scatters)
+                out.writeInt(scatter);
+            out.writeInt(config.getWildcard() != null ? config.getWildcard() : -1);
+            var table = config.getTable();
+            out.writeInt(table.getOccurrenceCounts().size());
+            for (int count : table.getOccurrenceCounts())
+                out.writeInt(count);
+            var data = new TreeMap<>(table.getData());
+            out.writeInt(data.size());
+            for (var card : data.entrySet()) {
+                out.writeInt(card.getKey());
+                var multipliers = new TreeMap<>(card.getValue());
+                out.writeInt(multipliers.size());
+                for (Map.Entry<Integer, Integer> multiplier : multipliers.entrySet()) {
+                    out.writeInt(multiplier.getKey());
+                    out.writeInt(multiplier.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray())).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Checks that the checkpoint belongs to a job.
+     *
+     * @throws IllegalArgumentException If it does not.
+     */
+    void checkJob(byte kind, long fingerprint, int linesPlayed, long seed) {
+        if (this.kind != kind)
+            throw new IllegalArgumentException("Checkpoint is not of " + (kind == SIMULATION ? "a simulation" : "an enumeration"));
+        if (this.fingerprint != fingerprint)
+            throw new IllegalArgumentException("Checkpoint is of a different configuration");
+        if (this.linesPlayed != linesPlayed)
+            throw new IllegalArgumentException("Checkpoint is for " + this.linesPlayed + " lines, not " + linesPlayed);
+        if (this.seed != seed)
+            throw new IllegalArgumentException("Checkpoint is for master seed " + this.seed + ", not " + seed);
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Writes the checkpoint, replacing the previous one at once.
+     *
+     * @param file The checkpoint file.
+     * @throws IOException If writing fails.
+     */
+    void write(Path file) throws IOException {
+        writeAtomically(file, out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(kind);
+            out.writeLong(fingerprint);
+            out.writeInt(linesPlayed);
+            out.writeLong(seed);
+            out.writeLong(position);
+            tally.writeTo(out);
+        });
+    }
+
+    /**
+     * Reads a checkpoint.
+     *
+     * @param file The checkpoint file.
+     * @return The checkpoint.
+     * @throws IOException If reading fails or the file is not a checkpoint.
+     */
+    static Checkpoint read(Path file) throws IOException {
+        try (var in = open(file)) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Not a checkpoint file: " + file);
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported checkpoint version " + version + ": " + file);
+
+            byte kind = in.readByte();
+            long fingerprint = in.readLong();
+            int linesPlayed = in.readInt();
+            long seed = in.readLong();
+            long position = in.readLong();
+            WinTally tally = WinTally.readFrom(in);
+            return new Checkpoint(kind, fingerprint, linesPlayed, seed, position, tally);
+        }
+    }
+
+    //*******************
+    //* UTILITY METHODS *
+    //*******************
+
+    /**
+     * Writes the contents of a binary file.
+     */
+    interface BinaryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes a binary file to a temporary file first, which then replaces the file at once, so that the file
+     * is either absent, or its previous or new version, but never partly written.
+     *
+     * @param file The file.
+     * @param writer Writes the contents of the file.
+     * @throws IOException If writing fails.
+     */
+    static void writeAtomically(Path file, BinaryWriter writer) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            writer.write(out);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes lists of integers, each prefixed by its size; a missing list or element is written as -1.
+     */
+    private static void writeLists(DataOutputStream out, List<List<Integer>> lists) throws IOException {
+        if (lists == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(lists.size());
+        for (var list : lists) {
+            out.writeInt(list != null ? list.size() : -1);
+            if (list != null)
+                for (Integer value : list)
+                    out.writeInt(value != null ? value : -1);
+        }
+    }
+
+    static DataInputStream open(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+    }
+
+}
@@ -0,0 +1,320 @@
+package com.amusnet.simulation;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.game.components.ReelScreen;
+import com.amusnet.rng.StopSampler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays every combination of reel stops (the full cycle) exactly once, giving the exact
+ * return to player, hit frequency and per-line/per-card contributions of a configuration.
+ * <br/><br/>
+ * A combination of stops is numbered like the digits of a mixed-radix number, the last reel being
+ * the least significant digit. The range of combinations is split in halves by a fork/join pool until
+ * the ranges are small enough, and each range is played by its own {@link GameRound} and {@link WinTally},
+ * so the threads share nothing but the read-only configuration. The tallies are merged on the way back.
+ * <br/><br/>
+ * If the reel stops are weighted, every combination is added to the tally with the product of its stops'
+ * weights, i.e. the number of combinations of virtual stops it stands for, so the tally is exactly that of
+ * the full cycle of virtual stops.
+ * <br/><br/>
+ * A long enumeration may save its progress to a {@link Checkpoint} file periodically and be resumed from it,
+ * see {@link #enumerate(ForkJoinPool, Path)}.
+ */
+public class FullCycleEnumerator {
+
+    private static final long MIN_RANGE_SIZE = 256;
+    private static final long MAX_RANGE_SIZE = 1 << 16;
+    private static final int RANGES_PER_THREAD = 32;
+
+    private final GameConfig config;
+    private final int linesPlayed;
+    private final StopSampler stopSampler;
+    private final int[] reelLengths;
+    private final long cycleSize;
+    private final long cycleWeight;
+
+    private Duration checkpointInterval = Duration.ofMinutes(1);
+
+    public FullCycleEnumerator(GameConfig config) {
+        this(config, config.getLineCount());
+    }
+
+    /**
+     * @param config The configuration to enumerate.
+     * @param linesPlayed The number of lines bet on, starting from the first.
+     * @throws IllegalArgumentException If the number of lines is invalid, or the cycle has more than
+     *                                  {@link Long#MAX_VALUE} combinations or line bets of virtual stops.
+     */
+    public FullCycleEnumerator(GameConfig config, int linesPlayed) {
+        if (linesPlayed < 1 || linesPlayed > config.getLines().size())
+            throw new IllegalArgumentException("Invalid number of lines: " + linesPlayed);
+        this.config = config;
+        this.linesPlayed = linesPlayed;
+
+        this.stopSampler = config.getStopSampler();
+        this.reelLengths = new int[config.getScreenColumnCount()];
+        long cycleWeight = 1;
+        try {
+            this.cycleSize = config.getCycleSize();
+            for (int i = 0; i < reelLengths.length; i++) {
+                reelLengths[i] = stopSampler.getReelLength(i);
+                cycleWeight = Math.multiplyExact(cycleWeight, stopSampler.getTotalWeight(i));
+            }
+            Math.multiplyExact(cycleWeight, linesPlayed);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Cycle has too many combinations", e);
+        }
+        this.cycleWeight = cycleWeight;
+    }
+
+    /**
+     * @return The number of combinations of reel stops, i.e. the product of the reel lengths.
+     * @see GameConfig#getCycleSize()
+     */
+    public long getCycleSize() {
+        return cycleSize;
+    }
+
+    /**
+     * @return The number of combinations of virtual reel stops, i.e. the product of the reels' total weights.
+     * Equals {@link #getCycleSize()} if the stops are not weighted.
+     */
+    public long getCycleWeight() {
+        return cycleWeight;
+    }
+
+    public Duration getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * @param checkpointInterval The least time between two checkpoints of {@link #enumerate(ForkJoinPool, Path)}
+     *                           (1 minute by default). The last checkpoint is written whatever the interval.
+     */
+    public void setCheckpointInterval(Duration checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Plays the full cycle on the common fork/join pool.
+     *
+     * @return The tally of all combinations.
+     */
+    public WinTally enumerate() {
+        return enumerate(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays the full cycle on a fork/join pool.
+     *
+     * @param pool The pool to play the cycle on.
+     * @return The tally of all combinations.
+     */
+    public WinTally enumerate(ForkJoinPool pool) {
+        return enumerate(pool, 0, cycleSize);
+    }
+
+    /**
+     * Plays a range of combinations on a fork/join pool, e.g. a shard of an enumeration run by several
+     * processes (see {@link ShardedRun}).
+     *
+     * @param pool The pool to play the range on.
+     * @param from The first combination, inclusive.
+     * @param to The last combination, exclusive.
+     * @return The tally of the range.
+     */
+    public WinTally enumerate(ForkJoinPool pool, long from, long to) {
+        if (from < 0 || to > cycleSize || from > to)
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") of " + cycleSize);
+
+        long rangeSize = (to - from) / ((long) pool.getParallelism() * RANGES_PER_THREAD);
+        rangeSize = Math.max(MIN_RANGE_SIZE, Math.min(MAX_RANGE_SIZE, rangeSize));
+        return pool.invoke(new RangeTask(from, to, rangeSize));
+    }
+
+    /**
+     * Plays the full cycle on a fork/join pool, saving the progress to a checkpoint file every
+     * {@link #getCheckpointInterval()} and when done. If the file exists, the enumeration resumes from it.
+     *
+     * @param pool The pool to play the cycle on.
+     * @param checkpointFile The checkpoint file.
+     * @return The tally of all combinations.
+     * @throws IOException If the checkpoint cannot be read or written.
+     * @throws IllegalArgumentException If the checkpoint is of another job.
+     */
+    public WinTally enumerate(ForkJoinPool pool, Path checkpointFile) throws IOException {
+        return enumerate(pool, checkpointFile, cycleSize);
+    }
+
+    /**
+     * Plays the first combinations of the cycle like {@link #enumerate(ForkJoinPool, Path)}, so that
+     * a large cycle may be enumerated a part at a time. The combinations are played in consecutive partitions,
+     * and the progress is saved after a partition.
+     *
+     * @param pool The pool to play the combinations on.
+     * @param checkpointFile The checkpoint file.
+     * @param combinations The number of combinations to play, including those of the checkpoint.
+     * @return The tally of the combinations played.
+     * @throws IOException If the checkpoint cannot be read or written.
+     * @throws IllegalArgumentException If the checkpoint is of another job or beyond that many combinations.
+     */
+    public WinTally enumerate(ForkJoinPool pool, Path checkpointFile, long combinations) throws IOException {
+        if (combinations < 0 || combinations > cycleSize)
+            throw new IndexOutOfBoundsException("Invalid number of combinations " + combinations + " of " + cycleSize);
+
+        long fingerprint = Checkpoint.fingerprint(config);
+        long from = 0;
+        WinTally tally;
+        if (Files.exists(checkpointFile)) {
+            Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+            checkpoint.checkJob(Checkpoint.ENUMERATION, fingerprint, linesPlayed, 0);
+            from = checkpoint.position;
+            if (from > combinations)
+                throw new IllegalArgumentException("Checkpoint is beyond combination " + combinations);
+            tally = checkpoint.tally;
+        } else
+            tally = new WinTally(linesPlayed, config.getPayTable().getCardIndexCount());
+
+        long partitionSize = MAX_RANGE_SIZE * RANGES_PER_THREAD * pool.getParallelism();
+        long lastCheckpoint = System.nanoTime();
+        while (from < combinations) {
+            long to = Math.min(combinations, from + partitionSize);
+            tally.merge(pool.invoke(new RangeTask(from, to, MAX_RANGE_SIZE)));
+            from = to;
+            if (from == combinations || System.nanoTime() - lastCheckpoint >= checkpointInterval.toNanos()) {
+                new Checkpoint(Checkpoint.ENUMERATION, fingerprint, linesPlayed, 0, from, tally)
+                        .write(checkpointFile);
+                lastCheckpoint = System.nanoTime();
+            }
+        }
+        return tally;
+    }
+
+    /**
+     * Plays a range of combinations on the calling thread.
+     *
+     * @param from The first combination, inclusive.
+     * @param to The last combination, exclusive.
+     * @return The tally of the range.
+     */
+    public WinTally enumerate(long from, long to) {
+        if (from < 0 || to > cycleSize || from > to)
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") of " + cycleSize);
+
+        var gameRound = new GameRound(config);
+        gameRound.setLinesPlayed(linesPlayed);
+        gameRound.setBetAmount(1);
+        ReelScreen reelScreen = gameRound.getReelScreen();
+        var tally = new WinTally(linesPlayed, config.getPayTable().getCardIndexCount());
+
+        boolean weighted = stopSampler.isWeighted();
+        int[] stops = stopsOf(from);
+        for (long combination = from; combination < to; combination++) {
+            long weight = weighted ? weightOf(stops) : 1;
+            if (weight > 0) {
+                reelScreen.generateScreen(stops);
+                tally.add(gameRound.playRound(), weight);
+            }
+            nextStops(stops);
+        }
+        return tally;
+    }
+
+    //*************************
+    //* HEAVY-LIFTING METHODS *
+    //*************************
+
+    private class RangeTask extends RecursiveTask<WinTally> {
+
+        private final long from, to, rangeSize;
+
+        RangeTask(long from, long to, long rangeSize) {
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+        }
+
+        @Override
+        protected WinTally compute() {
+            if (to - from <= rangeSize)
+                return enumerate(from, to);
+
+            long middle = from + (to - from) / 2;
+            var left = new RangeTask(from, middle, rangeSize);
+            left.fork();
+            WinTally right = new RangeTask(middle, to, rangeSize).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    //*******************
+    //* UTILITY METHODS *
+    //*******************
+
+    private int[] stopsOf(long combination) {
+        int[] stops = new int[reelLengths.length];
+        for (int i = reelLengths.length - 1; i >= 0; i--) {
+            stops[i] = (int) (combination % reelLengths[i]);
+            combination /= reelLengths[i];
+        }
+        return stops;
+    }
+
+    private long weightOf(int[] stops) {
+        long weight = 1;
+        for (int i = 0; i < stops.length; i++)
+            weight *= stopSampler.getWeight(i, stops[i]);     // at most the cycle weight
+        return weight;
+    }
+
+    private void nextStops(int[] stops) {
+        for (int i = reelLengths.length - 1; i >= 0; i--) {
+            if (++stops[i] < reelLengths[i])
+                return;
+            stops[i] = 0;
+        }
+    }
+
+    /**
+     * Enumerates the full cycle of the game's configuration and prints the report.
+     *
+     * @param args Optionally, the number of lines bet on (all lines by default) and a checkpoint file
+     *             to resume from and save to.
+     * @throws IOException If the checkpoint file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        GameConfig config = Game.CONFIGURATION;
+        var enumerator = args.length > 0
+                ? new FullCycleEnumerator(config, Integer.parseInt(args[0]))
+                : new FullCycleEnumerator(config);
+
+        System.out.printf("Reel lengths: %s, cycle size: %d%n",
+                Arrays.toString(enumerator.reelLengths), enumerator.getCycleSize());
+
+        long start = System.nanoTime();
+        WinTally tally = args.length > 1
+                ? enumerator.enumerate(ForkJoinPool.commonPool(), Path.of(args[1]))
+                : enumerator.enumerate();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(tally);
+        System.out.printf("Enumerated %d combinations (%d virtual) in %.2f s on %d threads%n",
+                enumerator.getCycleSize(), enumerator.getCycleWeight(), seconds,
+                ForkJoinPool.commonPool().getParallelism());
+    }
+
+}
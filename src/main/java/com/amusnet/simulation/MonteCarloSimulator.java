@@ -0,0 +1,366 @@
+package com.amusnet.simulation;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.game.components.ReelScreen;
+import com.amusnet.rng.RngSource;
+import com.amusnet.rng.StopSampler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays random rounds without a console or a database, for configurations whose full cycle
+ * is too large to enumerate (see {@link FullCycleEnumerator}).
+ * <br/><br/>
+ * The spins are cut into batches of {@link #BATCH_SIZE}. Every batch draws its reel stops (by their weights,
+ * see {@link StopSampler}) from its own {@link SplittableRandom}, seeded from the master seed and the batch
+ * number only, so a batch plays the same rounds whichever thread picks it up. Since the tallies hold exact
+ * integer sums, the result depends on the master seed alone, not on the number of threads.
+ * <br/><br/>
+ * Each thread keeps its own {@link GameRound} and {@link WinTally} for all the batches it plays, and the only
+ * shared state is the counter of the next batch. The tallies of the threads are merged when they are done.
+ * <br/><br/>
+ * A long simulation may save its progress to a {@link Checkpoint} file periodically, and be resumed from it
+ * with the same result, see {@link #simulate(long, long, Path)}.
+ */
+public class MonteCarloSimulator {
+
+    /**
+     * Number of spins in a batch. Part of the definition of the random sequence, so changing it
+     * changes the results for a given seed.
+     */
+    public static final int BATCH_SIZE = 1 << 16;
+
+    /**
+     * Number of batches played between two estimates of the precision in {@link #simulateToPrecision}.
+     * Does not depend on the number of threads, so that neither does the number of spins played.
+     */
+    public static final int PRECISION_CHECK_BATCHES = 16;
+
+    /**
+     * Default number of rounds {@link #simulateToPrecision} plays before it first trusts its estimate of the
+     * precision: with rare big wins, the standard error of a short run is often far too small.
+     */
+    public static final long MIN_PRECISION_SPINS = 4L * PRECISION_CHECK_BATCHES * BATCH_SIZE;
+
+    private static final long MAX_PRECISION_SPINS = 100_000_000_000L;
+
+    // batches played per thread between two merges
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private final GameConfig config;
+    private final int linesPlayed;
+    private final int threadCount;
+    private final StopSampler stopSampler;
+
+    private Duration checkpointInterval = Duration.ofMinutes(1);
+    private long minPrecisionSpins = MIN_PRECISION_SPINS;
+
+    public MonteCarloSimulator(GameConfig config) {
+        this(config, config.getLineCount(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param config The configuration to simulate.
+     * @param linesPlayed The number of lines bet on, starting from the first.
+     * @param threadCount The number of threads to play on.
+     */
+    public MonteCarloSimulator(GameConfig config, int linesPlayed, int threadCount) {
+        if (linesPlayed < 1 || linesPlayed > config.getLines().size())
+            throw new IllegalArgumentException("Invalid number of lines: " + linesPlayed);
+        if (threadCount < 1)
+            throw new IllegalArgumentException("Invalid number of threads: " + threadCount);
+        this.config = config;
+        this.linesPlayed = linesPlayed;
+        this.threadCount = threadCount;
+        this.stopSampler = config.getStopSampler();
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public Duration getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * @param checkpointInterval The least time between two checkpoints of {@link #simulate(long, long, Path)}
+     *                           (1 minute by default). The last checkpoint is written whatever the interval.
+     */
+    public void setCheckpointInterval(Duration checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public long getMinPrecisionSpins() {
+        return minPrecisionSpins;
+    }
+
+    /**
+     * @param minPrecisionSpins The number of rounds {@link #simulateToPrecision} plays at least (unless it is
+     *                          given fewer) before it stops on the precision reached
+     *                          ({@link #MIN_PRECISION_SPINS} by default).
+     */
+    public void setMinPrecisionSpins(long minPrecisionSpins) {
+        if (minPrecisionSpins < 0)
+            throw new IllegalArgumentException("Invalid number of spins: " + minPrecisionSpins);
+        this.minPrecisionSpins = minPrecisionSpins;
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Plays random rounds.
+     *
+     * @param spins The number of rounds to play.
+     * @param seed The master seed.
+     * @return The tally of the rounds, along with the time it took to play them.
+     */
+    public SimulationResult simulate(long spins, long seed) {
+        if (spins < 0)
+            throw new IllegalArgumentException("Invalid number of spins: " + spins);
+        return simulateRange(0, spins, seed);
+    }
+
+    /**
+     * Plays a range of the rounds of a master seed, e.g. a shard of a simulation run by several processes
+     * (see {@link ShardedRun}). The rounds are those {@link #simulate(long, long)} plays in that range.
+     *
+     * @param from The first round, inclusive, at the start of a batch unless the range is empty.
+     * @param to The last round, exclusive.
+     * @param seed The master seed.
+     * @return The tally of the rounds, along with the time it took to play them.
+     */
+    public SimulationResult simulateRange(long from, long to, long seed) {
+        if (from < 0 || from > to || (from % BATCH_SIZE != 0 && from < to))
+            throw new IllegalArgumentException("Invalid range of spins [" + from + ", " + to + ")");
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            var tally = newTally();
+            long stepSpins = (long) BATCHES_PER_THREAD * threadCount * BATCH_SIZE;
+            for (long spin = from; spin < to; spin += stepSpins)
+                play(executor, seed, spin, Math.min(to, spin + stepSpins), tally);
+            return new SimulationResult(tally, threadCount, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays random rounds like {@link #simulate(long, long)}, saving the progress to a checkpoint file every
+     * {@link #getCheckpointInterval()} and when done. If the file exists, the simulation resumes from it, and
+     * ends with exactly the result of an uninterrupted simulation. A finished simulation may also be resumed
+     * for more spins, if the spins it played fill whole batches.
+     *
+     * @param spins The number of rounds to play, including those of the checkpoint.
+     * @param seed The master seed.
+     * @param checkpointFile The checkpoint file.
+     * @return The tally of the rounds, along with the time it took to play those not in the checkpoint.
+     * @throws IOException If the checkpoint cannot be read or written.
+     * @throws IllegalArgumentException If the checkpoint is of another job, or cannot be resumed to that many spins.
+     */
+    public SimulationResult simulate(long spins, long seed, Path checkpointFile) throws IOException {
+        if (spins < 0)
+            throw new IllegalArgumentException("Invalid number of spins: " + spins);
+
+        long fingerprint = Checkpoint.fingerprint(config);
+        long from = 0;
+        WinTally tally;
+        if (Files.exists(checkpointFile)) {
+            Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+            checkpoint.checkJob(Checkpoint.SIMULATION, fingerprint, linesPlayed, seed);
+            from = checkpoint.position;
+            if (from > spins || (from % BATCH_SIZE != 0 && from != spins))
+                throw new IllegalArgumentException("Cannot resume a checkpoint at spin " + from + " to " + spins + " spins");
+            tally = checkpoint.tally;
+        } else
+            tally = newTally();
+
+        long start = System.nanoTime(), lastCheckpoint = start;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            long stepSpins = (long) BATCHES_PER_THREAD * threadCount * BATCH_SIZE;
+            while (from < spins) {
+                long to = Math.min(spins, from + stepSpins);
+                play(executor, seed, from, to, tally);
+                from = to;
+                if (from == spins || System.nanoTime() - lastCheckpoint >= checkpointInterval.toNanos()) {
+                    new Checkpoint(Checkpoint.SIMULATION, fingerprint, linesPlayed, seed, from, tally)
+                            .write(checkpointFile);
+                    lastCheckpoint = System.nanoTime();
+                }
+            }
+            return new SimulationResult(tally, threadCount, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays random rounds until the return to player is known to a given precision: the rounds are played
+     * {@link #PRECISION_CHECK_BATCHES} batches at a time, and after each step the confidence interval of the
+     * return to player is estimated from the standard error of the win per round. The estimate is only trusted
+     * once at least {@link #getMinPrecisionSpins()} rounds are played. The rounds are the same as
+     * those of {@link #simulate(long, long)} with the same seed, i.e. the result is that of simulating the
+     * number of spins it reports.
+     *
+     * @param halfWidth The half-width of the confidence interval to reach, as a fraction of the total bet
+     *                  (e.g. 0.0005 for +/-0.05%).
+     * @param confidence The confidence level of the interval, strictly between 0 and 1 (e.g. 0.99).
+     * @param maxSpins The number of rounds after which to stop, whatever the precision reached.
+     * @param seed The master seed.
+     * @return The tally of the rounds, along with the time it took to play them.
+     */
+    public SimulationResult simulateToPrecision(double halfWidth, double confidence, long maxSpins, long seed) {
+        if (!(halfWidth > 0))
+            throw new IllegalArgumentException("Invalid confidence interval half-width: " + halfWidth);
+        if (!(confidence > 0 && confidence < 1))
+            throw new IllegalArgumentException("Invalid confidence: " + confidence);
+        if (maxSpins < 0)
+            throw new IllegalArgumentException("Invalid number of spins: " + maxSpins);
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            var tally = newTally();
+            long stepSpins = (long) PRECISION_CHECK_BATCHES * BATCH_SIZE;
+            for (long from = 0; from < maxSpins; from += stepSpins) {
+                long to = Math.min(maxSpins, from + stepSpins);
+                play(executor, seed, from, to, tally);
+                if (to >= minPrecisionSpins && tally.getRtpHalfWidth(confidence) <= halfWidth)
+                    break;
+            }
+            return new SimulationResult(tally, threadCount, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //*************************
+    //* HEAVY-LIFTING METHODS *
+    //*************************
+
+    /**
+     * Plays the spins of a range on the threads of an executor, every thread into its own tally,
+     * and adds those to a tally.
+     *
+     * @param from The first spin, inclusive, at the start of a batch.
+     * @param to The last spin, exclusive.
+     */
+    private void play(ExecutorService executor, long seed, long from, long to, WinTally tally) {
+        long firstBatch = from / BATCH_SIZE;
+        int batchCount = (int) ((to + BATCH_SIZE - 1) / BATCH_SIZE - firstBatch);
+        var nextBatch = new AtomicInteger();
+
+        try {
+            List<Future<WinTally>> workers = new ArrayList<>(threadCount);
+            for (int t = 0; t < threadCount; t++)
+                workers.add(executor.submit(() -> {
+                    var worker = new Worker();
+                    for (int i = nextBatch.getAndIncrement(); i < batchCount; i = nextBatch.getAndIncrement()) {
+                        long batchStart = (firstBatch + i) * BATCH_SIZE;
+                        worker.play(batchSeed(seed, firstBatch + i), Math.min(BATCH_SIZE, to - batchStart));
+                    }
+                    return worker.tally;
+                }));
+            for (var worker : workers)
+                tally.merge(worker.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * The state of a thread, reused for all the batches the thread plays.
+     */
+    private class Worker {
+
+        private final GameRound gameRound = new GameRound(config);
+        private final ReelScreen reelScreen = gameRound.getReelScreen();
+        private final int[] stops = new int[stopSampler.getReelCount()];
+        private final WinTally tally = newTally();
+
+        Worker() {
+            gameRound.setLinesPlayed(linesPlayed);
+            gameRound.setBetAmount(1);
+        }
+
+        void play(long seed, long spins) {
+            RngSource rng = RngSource.splittable(seed);
+            for (long spin = 0; spin < spins; spin++) {
+                stopSampler.sample(rng, stops);
+                reelScreen.generateScreen(stops);
+                tally.add(gameRound.playRound());
+            }
+        }
+    }
+
+    //*******************
+    //* UTILITY METHODS *
+    //*******************
+
+    private WinTally newTally() {
+        return new WinTally(linesPlayed, config.getPayTable().getCardIndexCount());
+    }
+
+    /**
+     * Derives the seed of a batch in O(1). It equals the (batch + 1)-th output of
+     * {@code new SplittableRandom(seed)}, whose state advances by a fixed gamma per output.
+     */
+    private static long batchSeed(long seed, long batch) {
+        return new SplittableRandom(seed + batch * 0x9e3779b97f4a7c15L).nextLong();
+    }
+
+    /**
+     * Plays random rounds of the game's configuration and prints the report.
+     *
+     * @param args Optionally, the number of spins (10 million by default) or, ending with '%', the half-width
+     *             of the 99% confidence interval of the return to player to reach (e.g. "0.05%", for at most
+     *             100 billion spins), the master seed (the current time by default), the number
+     *             of threads (all processors by default), a file to write the tally to as JSON ("-" for none)
+     *             and a checkpoint file to resume from and save to (for a number of spins only).
+     * @throws IOException If the JSON or checkpoint file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        String spins = args.length > 0 ? args[0] : "10000000";
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        GameConfig config = Game.CONFIGURATION;
+        System.out.printf("Master seed: %d%n", seed);
+        var simulator = new MonteCarloSimulator(config, config.getLineCount(), threads);
+        SimulationResult result;
+        if (spins.endsWith("%"))
+            result = simulator.simulateToPrecision(Double.parseDouble(spins.substring(0, spins.length() - 1)) / 100,
+                    0.99, MAX_PRECISION_SPINS, seed);
+        else if (args.length > 4)
+            result = simulator.simulate(Long.parseLong(spins), seed, Path.of(args[4]));
+        else
+            result = simulator.simulate(Long.parseLong(spins), seed);
+        System.out.print(result);
+        System.out.printf("RTP: %.6f%% +/- %.6f%% at 99%% confidence%n",
+                100 * result.getTally().getRtp(), 100 * result.getTally().getRtpHalfWidth(0.99));
+        if (args.length > 3 && !args[3].equals("-"))
+            Files.writeString(Path.of(args[3]), result.getTally().toJson());
+    }
+
+}
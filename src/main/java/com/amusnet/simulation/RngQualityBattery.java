@@ -0,0 +1,115 @@
+package com.amusnet.simulation;
+
+import com.amusnet.game.Game;
+import com.amusnet.rng.RngSource;
+import com.amusnet.rng.StopSampler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Statistical tests of a random number source, as used to draw reel stops: the stops are drawn
+ * through a {@link StopSampler}, exactly as {@link com.amusnet.game.components.ReelScreen} draws them, and
+ * checked for uniformity (by the stops' weights) and independence with the tests of {@link StopStatistics}.
+ * <br/><br/>
+ * The draws are streamed: no draw is kept, so a run of any length takes the same memory. Every thread draws
+ * its share of the spins from its own source, split from the tested source before the run, into its own
+ * statistics, which are merged when all threads are done.
+ */
+public class RngQualityBattery {
+
+    private final StopSampler sampler;
+    private final int threadCount;
+
+    public RngQualityBattery(StopSampler sampler) {
+        this(sampler, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param sampler The sampler of the reels' stops.
+     * @param threadCount The number of threads to draw on.
+     */
+    public RngQualityBattery(StopSampler sampler, int threadCount) {
+        if (threadCount < 1)
+            throw new IllegalArgumentException("Invalid number of threads: " + threadCount);
+        this.sampler = sampler;
+        this.threadCount = threadCount;
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Draws the stops of spins from a source and tests them.
+     *
+     * @param rng The source to test, which is split once per thread.
+     * @param spins The number of spins to draw the stops of.
+     * @return The p-values of the tests, along with the time it took to draw the stops.
+     */
+    public RngQualityReport run(RngSource rng, long spins) {
+        if (spins < 0)
+            throw new IllegalArgumentException("Invalid number of spins: " + spins);
+
+        // split in order before any thread draws, so a seeded run is reproducible
+        RngSource[] sources = new RngSource[threadCount];
+        for (int t = 0; t < threadCount; t++)
+            sources[t] = rng.split();
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<StopStatistics>> workers = new ArrayList<>(threadCount);
+            for (int t = 0; t < threadCount; t++) {
+                RngSource source = sources[t];
+                long share = spins / threadCount + (t < spins % threadCount ? 1 : 0);
+                workers.add(executor.submit(() -> {
+                    var statistics = new StopStatistics(sampler);
+                    int[] stops = new int[sampler.getReelCount()];
+                    for (long spin = 0; spin < share; spin++) {
+                        sampler.sample(source, stops);
+                        statistics.add(stops);
+                    }
+                    return statistics;
+                }));
+            }
+
+            var statistics = new StopStatistics(sampler);
+            for (var worker : workers)
+                statistics.merge(worker.get());
+            long elapsedNanos = System.nanoTime() - start;
+            return new RngQualityReport(rng.toString(), statistics.test(), statistics.getSpins(),
+                    sampler.getReelCount(), threadCount, elapsedNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests a random number source on the reels of the game's configuration and prints the report.
+     *
+     * @param args Optionally, the number of spins (100 million by default), the algorithm of the source
+     *             (see {@link RngSource#of(String, long)}, "SplittableRandom" by default), the seed
+     *             (the current time by default) and the number of threads (all processors by default).
+     */
+    public static void main(String[] args) {
+        long spins = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000;
+        String algorithm = args.length > 1 ? args[1] : "SplittableRandom";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("Seed: %d%n", seed);
+        System.out.print(new RngQualityBattery(Game.CONFIGURATION.getStopSampler(), threads)
+                .run(RngSource.of(algorithm, seed), spins));
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.amusnet.simulation;
+
+import java.util.List;
+
+/**
+ * The outcome of a run of {@link RngQualityBattery}: the p-value of every test on every reel,
+ * and how fast the stops were drawn.
+ */
+public class RngQualityReport {
+
+    /**
+     * The outcome of a test on the stops of a reel.
+     */
+    public static class TestResult {
+
+        private final String test;
+        private final int reel;
+        private final double statistic;
+        private final double pValue;
+
+        public TestResult(String test, int reel, double statistic, double pValue) {
+            this.test = test;
+            this.reel = reel;
+            this.statistic = statistic;
+            this.pValue = pValue;
+        }
+
+        public String getTest() {
+            return test;
+        }
+
+        /**
+         * @return 0-based index of the reel.
+         */
+        public int getReel() {
+            return reel;
+        }
+
+        /**
+         * @return The statistic of the test: chi-square, correlation coefficient or z-score.
+         */
+        public double getStatistic() {
+            return statistic;
+        }
+
+        /**
+         * @return The probability of a statistic at least this extreme if the stops are drawn independently
+         * by their weights.
+         */
+        public double getPValue() {
+            return pValue;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s on reel %d: %f (p = %f)", test, reel + 1, statistic, pValue);
+        }
+    }
+
+    private final String source;
+    private final List<TestResult> results;
+    private final long spins;
+    private final int reelCount;
+    private final int threadCount;
+    private final long elapsedNanos;
+
+    public RngQualityReport(String source, List<TestResult> results, long spins, int reelCount,
+                            int threadCount, long elapsedNanos) {
+        this.source = source;
+        this.results = List.copyOf(results);
+        this.spins = spins;
+        this.reelCount = reelCount;
+        this.threadCount = threadCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    /**
+     * @return The name of the random number source tested.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public List<TestResult> getResults() {
+        return results;
+    }
+
+    public long getSpins() {
+        return spins;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return The number of stops drawn per second, all reels and threads together.
+     */
+    public double getDrawsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (double) spins * reelCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return The smallest p-value of all tests, or 1 if no test applied.
+     */
+    public double getMinPValue() {
+        return results.stream().mapToDouble(TestResult::getPValue).min().orElse(1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Source: %s, spins: %d, reels: %d%n", source, spins, reelCount));
+        sb.append(String.format("%-20s %5s %16s %12s%n", "Test", "Reel", "Statistic", "p-value"));
+        for (TestResult result : results)
+            sb.append(String.format("%-20s %5d %16.6f %12.6f%n",
+                    result.getTest(), result.getReel() + 1, result.getStatistic(), result.getPValue()));
+        sb.append(String.format("Smallest p-value: %.6f%n", getMinPValue()));
+        sb.append(String.format("Drew %d stops in %.2f s on %d threads (%.0f stops/s)%n",
+                spins * reelCount, elapsedNanos / 1e9, threadCount, getDrawsPerSecond()));
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,334 @@
+package com.amusnet.simulation;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Splits a simulation or an enumeration into shards, each run by its own process, possibly on another machine,
+ * with nothing shared but a directory: every shard writes its tally to a shard file in the
+ * directory, and the shard files are merged into the final report once all shards are done.
+ * <br/><br/>
+ * An enumeration is split into ranges of combinations of stops. A simulation is split into ranges of batches of
+ * the master seed's sequence (see {@link MonteCarloSimulator}), so the merged tally is exactly that of a
+ * simulation of all the spins in one process. A shard that did not finish is simply run again; its file
+ * is only written, at once, when it is done.
+ */
+public class ShardedRun {
+
+    public static final String SHARD_FILE_SUFFIX = ".shard";
+
+    private static final int MAGIC = 0x53485244;     // "SHRD"
+    private static final int VERSION = 3;
+
+    private final GameConfig config;
+    private final Path directory;
+    private final int shardCount;
+
+    /**
+     * @param config The configuration to simulate or enumerate, on all its lines.
+     * @param directory The directory to write the shard files to.
+     * @param shardCount The number of shards the job is split into.
+     */
+    public ShardedRun(GameConfig config, Path directory, int shardCount) {
+        if (shardCount < 1)
+            throw new IllegalArgumentException("Invalid number of shards: " + shardCount);
+        this.config = config;
+        this.directory = directory;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * The merged outcome of all the shards of a job.
+     */
+    public static class MergedShards {
+
+        private final boolean simulation;
+        private final int shardCount;
+        private final WinTally tally;
+        private final long elapsedNanos;
+
+        MergedShards(boolean simulation, int shardCount, WinTally tally, long elapsedNanos) {
+            this.simulation = simulation;
+            this.shardCount = shardCount;
+            this.tally = tally;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public boolean isSimulation() {
+            return simulation;
+        }
+
+        public int getShardCount() {
+            return shardCount;
+        }
+
+        public WinTally getTally() {
+            return tally;
+        }
+
+        /**
+         * @return The time the shards took to play, added up.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return tally + String.format("Merged %d shards of %s, %.2f s of shard time%n", shardCount,
+                    simulation ? "a simulation" : "an enumeration", elapsedNanos / 1e9);
+        }
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Simulates a shard of a simulation and writes its shard file.
+     *
+     * @param shard 0-based index of the shard.
+     * @param spins The number of spins of the whole simulation.
+     * @param seed The master seed of the whole simulation.
+     * @param threadCount The number of threads to play the shard on.
+     * @return The shard file.
+     * @throws IOException If the shard file cannot be written.
+     */
+    public Path simulateShard(int shard, long spins, long seed, int threadCount) throws IOException {
+        checkShard(shard);
+        if (spins < 0)
+            throw new IllegalArgumentException("Invalid number of spins: " + spins);
+
+        long batches = (spins + MonteCarloSimulator.BATCH_SIZE - 1) / MonteCarloSimulator.BATCH_SIZE;
+        long from = Math.min(spins, shardStart(batches, shard) * MonteCarloSimulator.BATCH_SIZE);
+        long to = Math.min(spins, shardStart(batches, shard + 1) * MonteCarloSimulator.BATCH_SIZE);
+        SimulationResult result = new MonteCarloSimulator(config, config.getLineCount(), threadCount)
+                .simulateRange(from, to, seed);
+        return writeShard(Checkpoint.SIMULATION, seed, spins, shard, from, to,
+                result.getElapsedNanos(), result.getTally());
+    }
+
+    /**
+     * Enumerates a shard of the full cycle and writes its shard file.
+     *
+     * @param shard 0-based index of the shard.
+     * @param pool The pool to play the shard on.
+     * @return The shard file.
+     * @throws IOException If the shard file cannot be written.
+     */
+    public Path enumerateShard(int shard, ForkJoinPool pool) throws IOException {
+        checkShard(shard);
+
+        var enumerator = new FullCycleEnumerator(config);
+        long cycleSize = enumerator.getCycleSize();
+        long from = shardStart(cycleSize, shard), to = shardStart(cycleSize, shard + 1);
+        long start = System.nanoTime();
+        WinTally tally = enumerator.enumerate(pool, from, to);
+        return writeShard(Checkpoint.ENUMERATION, 0, cycleSize, shard, from, to,
+                System.nanoTime() - start, tally);
+    }
+
+    /**
+     * Merges the shard files of a job in a directory.
+     *
+     * @param directory The directory of the shard files.
+     * @return The merged outcome of the shards.
+     * @throws IOException If a shard file cannot be read.
+     * @throws IllegalArgumentException If the shard files are not all of the same job, or some are missing.
+     */
+    public static MergedShards merge(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(f -> f.getFileName().toString().endsWith(SHARD_FILE_SUFFIX)).sorted().toList();
+        }
+        if (files.isEmpty())
+            throw new IllegalArgumentException("No shard files in " + directory);
+
+        Shard[] shards = null;
+        Shard first = null;
+        for (Path file : files) {
+            Shard shard = Shard.read(file);
+            if (first == null) {
+                first = shard;
+                shards = new Shard[shard.shardCount];
+            } else if (!shard.isOfSameJob(first))
+                throw new IllegalArgumentException("Shard files of different jobs: " + files.get(0) + ", " + file);
+            if (shards[shard.index] != null)
+                throw new IllegalArgumentException("Duplicate shard " + shard.index + ": " + file);
+            if (shard.from != shardStart(first, shard.index) || shard.to != shardStart(first, shard.index + 1))
+                throw new IllegalArgumentException("Invalid range of shard " + shard.index + ": " + file);
+            shards[shard.index] = shard;
+        }
+
+        var missing = new TreeSet<Integer>();
+        for (int i = 0; i < shards.length; i++)
+            if (shards[i] == null)
+                missing.add(i);
+        if (!missing.isEmpty())
+            throw new IllegalArgumentException("Missing shards " + missing + " of " + shards.length);
+
+        // in shard order, i.e. the order of the spins or combinations
+        WinTally tally = shards[0].tally;
+        long elapsedNanos = shards[0].elapsedNanos;
+        for (int i = 1; i < shards.length; i++) {
+            tally.merge(shards[i].tally);
+            elapsedNanos += shards[i].elapsedNanos;
+        }
+        return new MergedShards(first.kind == Checkpoint.SIMULATION, shards.length, tally, elapsedNanos);
+    }
+
+    /**
+     * Runs a shard of a job on the game's configuration, or merges the shards of a job.
+     *
+     * @param args One of:
+     *             <br/>{@code simulate <directory> <shard> <shards> <spins> <seed> [threads]}
+     *             <br/>{@code enumerate <directory> <shard> <shards> [threads]}
+     *             <br/>{@code merge <directory> [JSON file for the merged tally]}
+     *             <br/>Shards are numbered from 0, threads default to all processors.
+     * @throws IOException If a shard file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        String usage = "Usage: simulate <directory> <shard> <shards> <spins> <seed> [threads]"
+                + " | enumerate <directory> <shard> <shards> [threads] | merge <directory> [json]";
+        if (args.length < 2)
+            throw new IllegalArgumentException(usage);
+        Path directory = Path.of(args[1]);
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        switch (args[0]) {
+            case "simulate" -> {
+                if (args.length < 6)
+                    throw new IllegalArgumentException(usage);
+                int threads = args.length > 6 ? Integer.parseInt(args[6]) : processors;
+                Files.createDirectories(directory);
+                Path file = new ShardedRun(Game.CONFIGURATION, directory, Integer.parseInt(args[3]))
+                        .simulateShard(Integer.parseInt(args[2]), Long.parseLong(args[4]), Long.parseLong(args[5]), threads);
+                System.out.printf("Wrote %s%n", file);
+            }
+            case "enumerate" -> {
+                if (args.length < 4)
+                    throw new IllegalArgumentException(usage);
+                int threads = args.length > 4 ? Integer.parseInt(args[4]) : processors;
+                Files.createDirectories(directory);
+                Path file = new ShardedRun(Game.CONFIGURATION, directory, Integer.parseInt(args[3]))
+                        .enumerateShard(Integer.parseInt(args[2]), new ForkJoinPool(threads));
+                System.out.printf("Wrote %s%n", file);
+            }
+            case "merge" -> {
+                MergedShards merged = merge(directory);
+                System.out.print(merged);
+                if (args.length > 2)
+                    Files.writeString(Path.of(args[2]), merged.getTally().toJson());
+            }
+            default -> throw new IllegalArgumentException(usage);
+        }
+    }
+
+    //*************************
+    //* HEAVY-LIFTING METHODS *
+    //*************************
+
+    /**
+     * The contents of a shard file.
+     */
+    private static class Shard {
+
+        byte kind;
+        long fingerprint;
+        int linesPlayed;
+        long seed, total;
+        int index, shardCount;
+        long from, to, elapsedNanos;
+        WinTally tally;
+
+        boolean isOfSameJob(Shard other) {
+            return kind == other.kind && fingerprint == other.fingerprint && linesPlayed == other.linesPlayed
+                    && seed == other.seed && total == other.total && shardCount == other.shardCount;
+        }
+
+        static Shard read(Path file) throws IOException {
+            try (var in = Checkpoint.open(file)) {
+                if (in.readInt() != MAGIC)
+                    throw new IOException("Not a shard file: " + file);
+                int version = in.readInt();
+                if (version != VERSION)
+                    throw new IOException("Unsupported shard file version " + version + ": " + file);
+
+                var shard = new Shard();
+                shard.kind = in.readByte();
+                shard.fingerprint = in.readLong();
+                shard.linesPlayed = in.readInt();
+                shard.seed = in.readLong();
+                shard.total = in.readLong();
+                shard.index = in.readInt();
+                shard.shardCount = in.readInt();
+                shard.from = in.readLong();
+                shard.to = in.readLong();
+                shard.elapsedNanos = in.readLong();
+                shard.tally = WinTally.readFrom(in);
+                if (shard.shardCount < 1 || shard.index < 0 || shard.index >= shard.shardCount)
+                    throw new IOException("Invalid shard " + shard.index + " of " + shard.shardCount + ": " + file);
+                return shard;
+            }
+        }
+    }
+
+    private Path writeShard(byte kind, long seed, long total, int shard, long from, long to, long elapsedNanos,
+                            WinTally tally) throws IOException {
+        Path file = directory.resolve(String.format("%s-%05d-of-%05d%s",
+                kind == Checkpoint.SIMULATION ? "simulation" : "enumeration", shard, shardCount, SHARD_FILE_SUFFIX));
+        Checkpoint.writeAtomically(file, out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(kind);
+            out.writeLong(Checkpoint.fingerprint(config));
+            out.writeInt(config.getLineCount());
+            out.writeLong(seed);
+            out.writeLong(total);
+            out.writeInt(shard);
+            out.writeInt(shardCount);
+            out.writeLong(from);
+            out.writeLong(to);
+            out.writeLong(elapsedNanos);
+            tally.writeTo(out);
+        });
+        return file;
+    }
+
+    //*******************
+    //* UTILITY METHODS *
+    //*******************
+
+    private void checkShard(int shard) {
+        if (shard < 0 || shard >= shardCount)
+            throw new IllegalArgumentException("Invalid shard " + shard + " of " + shardCount);
+    }
+
+    /**
+     * @return The start of a shard of units (combinations or batches), the shards differing by one unit at most.
+     */
+    private long shardStart(long units, int shard) {
+        return shardStart(units, shardCount, shard);
+    }
+
+    private static long shardStart(Shard job, int shard) {
+        if (job.kind == Checkpoint.ENUMERATION)
+            return shardStart(job.total, job.shardCount, shard);
+        long batches = (job.total + MonteCarloSimulator.BATCH_SIZE - 1) / MonteCarloSimulator.BATCH_SIZE;
+        return Math.min(job.total, shardStart(batches, job.shardCount, shard) * MonteCarloSimulator.BATCH_SIZE);
+    }
+
+    private static long shardStart(long units, int shardCount, int shard) {
+        return units / shardCount * shard + Math.min(shard, units % shardCount);
+    }
+
+}
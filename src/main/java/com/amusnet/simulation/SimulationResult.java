@@ -0,0 +1,40 @@
+package com.amusnet.simulation;
+
+/**
+ * The outcome of a simulation: the tally of the simulated rounds and how fast they were played.
+ */
+public class SimulationResult {
+
+    private final WinTally tally;
+    private final int threadCount;
+    private final long elapsedNanos;
+
+    public SimulationResult(WinTally tally, int threadCount, long elapsedNanos) {
+        this.tally = tally;
+        this.threadCount = threadCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public WinTally getTally() {
+        return tally;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getSpinsPerSecond() {
+        return elapsedNanos == 0 ? 0 : tally.getSpins() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return tally + String.format("Simulated %d spins in %.2f s on %d threads (%.0f spins/s)%n",
+                tally.getSpins(), elapsedNanos / 1e9, threadCount, getSpinsPerSecond());
+    }
+
+}
@@ -0,0 +1,232 @@
+package com.amusnet.simulation;
+
+import com.amusnet.rng.StopSampler;
+import com.amusnet.util.Distributions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming statistics of reel stop draws, for the tests of {@link RngQualityBattery}. The memory taken
+ * is proportional to the reel lengths, whatever the number of draws, and statistics gathered by
+ * different threads are merged by summing them up.
+ * <br/><br/>
+ * Per reel, the following are kept:
+ * <br/>
+ * 1. the number of times each stop was drawn (chi-square test against the stops' weights),<br/>
+ * 2. the sums over pairs of consecutive stops (serial correlation test),<br/>
+ * 3. the lengths of the gaps between stops in the lower half of the reel (gap test),<br/>
+ * 4. the number of times consecutive stops switch between the lower and the upper half of the reel (runs test).<br/>
+ */
+class StopStatistics {
+
+    /**
+     * Gaps of 0 to GAP_CLASSES - 1 draws are counted separately, longer gaps together.
+     */
+    static final int GAP_CLASSES = 12;
+
+    private final StopSampler sampler;
+    private final int reelCount;
+
+    private long spins;
+
+    // [reel][stop]
+    private final long[][] counts;
+
+    // [reel]: pairs of consecutive stops (x, y) and their sums
+    private final int[] previous;
+    private final long[] pairs, sumX, sumY, sumXX, sumYY, sumXY;
+
+    // [reel][stop]: whether the stop is in the lower half of the reel, and [reel] the probability of one
+    private final boolean[][] lowerHalf;
+    private final double[] lowerHalfProbability;
+
+    // [reel]: gap since the last stop in the lower half (-1 before the first), [reel][gap class]: gaps seen
+    private final int[] currentGap;
+    private final long[][] gapCounts;
+
+    // [reel]: pairs of consecutive stops in different halves
+    private final long[] switches;
+
+    StopStatistics(StopSampler sampler) {
+        this.sampler = sampler;
+        this.reelCount = sampler.getReelCount();
+        this.counts = new long[reelCount][];
+        this.previous = new int[reelCount];
+        this.pairs = new long[reelCount];
+        this.sumX = new long[reelCount];
+        this.sumY = new long[reelCount];
+        this.sumXX = new long[reelCount];
+        this.sumYY = new long[reelCount];
+        this.sumXY = new long[reelCount];
+        this.lowerHalf = new boolean[reelCount][];
+        this.lowerHalfProbability = new double[reelCount];
+        this.currentGap = new int[reelCount];
+        this.gapCounts = new long[reelCount][GAP_CLASSES + 1];
+        this.switches = new long[reelCount];
+
+        for (int r = 0; r < reelCount; r++) {
+            int reelLength = sampler.getReelLength(r);
+            counts[r] = new long[reelLength];
+            lowerHalf[r] = new boolean[reelLength];
+            long lowerWeight = 0;
+            for (int stop = 0; stop < reelLength / 2; stop++) {
+                lowerHalf[r][stop] = true;
+                lowerWeight += sampler.getWeight(r, stop);
+            }
+            lowerHalfProbability[r] = (double) lowerWeight / sampler.getTotalWeight(r);
+            previous[r] = -1;
+            currentGap[r] = -1;
+        }
+    }
+
+    long getSpins() {
+        return spins;
+    }
+
+    /**
+     * Adds the stops of a spin.
+     *
+     * @param stops The stops, one per reel.
+     */
+    void add(int[] stops) {
+        ++spins;
+        for (int r = 0; r < reelCount; r++) {
+            int stop = stops[r];
+            ++counts[r][stop];
+
+            int before = previous[r];
+            if (before >= 0) {
+                ++pairs[r];
+                sumX[r] += before;
+                sumY[r] += stop;
+                sumXX[r] += (long) before * before;
+                sumYY[r] += (long) stop * stop;
+                sumXY[r] += (long) before * stop;
+                if (lowerHalf[r][before] != lowerHalf[r][stop])
+                    ++switches[r];
+            }
+            previous[r] = stop;
+
+            if (lowerHalf[r][stop]) {
+                if (currentGap[r] >= 0)
+                    ++gapCounts[r][currentGap[r]];
+                currentGap[r] = 0;
+            } else if (currentGap[r] >= 0 && currentGap[r] < GAP_CLASSES)
+                ++currentGap[r];
+        }
+    }
+
+    /**
+     * Adds the draws of other statistics of the same reels to these. Pairs and gaps spanning the two
+     * streams of draws are not counted, since the streams are independent.
+     *
+     * @param other The other statistics.
+     * @return These statistics.
+     */
+    StopStatistics merge(StopStatistics other) {
+        spins += other.spins;
+        for (int r = 0; r < reelCount; r++) {
+            for (int stop = 0; stop < counts[r].length; stop++)
+                counts[r][stop] += other.counts[r][stop];
+            pairs[r] += other.pairs[r];
+            sumX[r] += other.sumX[r];
+            sumY[r] += other.sumY[r];
+            sumXX[r] += other.sumXX[r];
+            sumYY[r] += other.sumYY[r];
+            sumXY[r] += other.sumXY[r];
+            for (int k = 0; k <= GAP_CLASSES; k++)
+                gapCounts[r][k] += other.gapCounts[r][k];
+            switches[r] += other.switches[r];
+        }
+        return this;
+    }
+
+    /**
+     * Runs the tests on the draws so far. Tests that do not apply to a reel (e.g. a reel of a single stop)
+     * are left out.
+     *
+     * @return The result of every test on every reel.
+     */
+    List<RngQualityReport.TestResult> test() {
+        List<RngQualityReport.TestResult> results = new ArrayList<>();
+        for (int r = 0; r < reelCount; r++) {
+            chiSquareTest(r, results);
+            serialCorrelationTest(r, results);
+            gapTest(r, results);
+            runsTest(r, results);
+        }
+        return results;
+    }
+
+    //*************************
+    //* HEAVY-LIFTING METHODS *
+    //*************************
+
+    private void chiSquareTest(int r, List<RngQualityReport.TestResult> results) {
+        double chiSquare = 0;
+        int classes = 0;
+        double totalWeight = sampler.getTotalWeight(r);
+        for (int stop = 0; stop < counts[r].length; stop++) {
+            double expected = spins * (sampler.getWeight(r, stop) / totalWeight);
+            if (expected == 0) {
+                if (counts[r][stop] > 0)
+                    chiSquare = Double.POSITIVE_INFINITY;   // a stop of weight 0 was drawn
+                continue;
+            }
+            double deviation = counts[r][stop] - expected;
+            chiSquare += deviation * deviation / expected;
+            ++classes;
+        }
+        if (classes > 1 && spins > 0)
+            results.add(new RngQualityReport.TestResult("Chi-square", r, chiSquare,
+                    Distributions.chiSquareSurvival(chiSquare, classes - 1)));
+    }
+
+    private void serialCorrelationTest(int r, List<RngQualityReport.TestResult> results) {
+        double m = pairs[r];
+        double covariance = m * sumXY[r] - (double) sumX[r] * sumY[r];
+        double varianceX = m * sumXX[r] - (double) sumX[r] * sumX[r];
+        double varianceY = m * sumYY[r] - (double) sumY[r] * sumY[r];
+        if (m < 2 || varianceX <= 0 || varianceY <= 0)
+            return;
+        double correlation = covariance / Math.sqrt(varianceX * varianceY);
+        double z = correlation * Math.sqrt(m);
+        results.add(new RngQualityReport.TestResult("Serial correlation", r, correlation,
+                Distributions.normalTwoSided(z)));
+    }
+
+    private void gapTest(int r, List<RngQualityReport.TestResult> results) {
+        double p = lowerHalfProbability[r];
+        long gaps = 0;
+        for (long count : gapCounts[r])
+            gaps += count;
+        if (p <= 0 || p >= 1 || gaps == 0)
+            return;
+
+        // a gap has length k with probability p (1 - p)^k
+        double chiSquare = 0, probability = p;
+        for (int k = 0; k <= GAP_CLASSES; k++) {
+            if (k == GAP_CLASSES)
+                probability = Math.pow(1 - p, GAP_CLASSES);
+            double expected = gaps * probability;
+            double deviation = gapCounts[r][k] - expected;
+            chiSquare += deviation * deviation / expected;
+            probability *= 1 - p;
+        }
+        results.add(new RngQualityReport.TestResult("Gap", r, chiSquare,
+                Distributions.chiSquareSurvival(chiSquare, GAP_CLASSES)));
+    }
+
+    private void runsTest(int r, List<RngQualityReport.TestResult> results) {
+        // consecutive switches between halves are 1-dependent Bernoulli variables of probability q
+        double p = lowerHalfProbability[r], q = 2 * p * (1 - p);
+        double m = pairs[r];
+        double variance = m * (q * (1 - q) + 2 * (p * (1 - p) - q * q));
+        if (variance <= 0)
+            return;
+        double z = (switches[r] - m * q) / Math.sqrt(variance);
+        results.add(new RngQualityReport.TestResult("Runs", r, z, Distributions.normalTwoSided(z)));
+    }
+
+}
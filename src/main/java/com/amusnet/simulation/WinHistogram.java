@@ -0,0 +1,188 @@
+package com.amusnet.simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A log-linear histogram of wins (HdrHistogram-style): values below 2^{@link #SUB_BUCKET_BITS} are counted
+ * exactly, and every larger power of two is split into 2^({@link #SUB_BUCKET_BITS} - 1) buckets of equal width,
+ * so a value is known within a relative error of 2^-({@link #SUB_BUCKET_BITS} - 1) (less than 0.8%).
+ * <br/><br/>
+ * Every non-negative long can be recorded, in O(1), and the memory taken is fixed (under 60 KB).
+ * Histograms are merged by adding up their counts, so every thread may record into its own.
+ * Values are taken as is; {@link WinTally} records wins in line bets.
+ */
+public class WinHistogram {
+
+    /**
+     * Values below 2^SUB_BUCKET_BITS get a bucket each.
+     */
+    public static final int SUB_BUCKET_BITS = 8;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * HALF_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long maxValue;
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return The largest value recorded, exactly, or 0 if none was.
+     */
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100.
+     * @return The value at or below which the given percentage of the recorded values are, i.e. the largest value
+     * equivalent to it within the precision of the histogram, or 0 if no value was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        if (totalCount == 0)
+            return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target)
+                return Math.min(highestValueOf(i), maxValue);
+        }
+        return maxValue;
+    }
+
+    /**
+     * @param value A value, not negative.
+     * @return The number of recorded values at least as large, values equivalent to it within the precision
+     * of the histogram included.
+     */
+    public long getCountAtOrAbove(long value) {
+        long count = 0;
+        for (int i = indexOf(value); i < BUCKET_COUNT; i++)
+            count += counts[i];
+        return count;
+    }
+
+    /**
+     * @param value A value, not negative.
+     * @return The fraction of recorded values at least as large (see {@link #getCountAtOrAbove(long)}).
+     */
+    public double getExceedanceProbability(long value) {
+        return totalCount == 0 ? 0 : (double) getCountAtOrAbove(value) / totalCount;
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Records a value count times.
+     *
+     * @param value The value, not negative.
+     * @param count The number of times to record it, not negative.
+     */
+    public void record(long value, long count) {
+        counts[indexOf(value)] += count;
+        totalCount += count;
+        if (count > 0 && value > maxValue)
+            maxValue = value;
+    }
+
+    /**
+     * Adds the values of another histogram to this one.
+     *
+     * @param other The other histogram.
+     * @return This histogram.
+     */
+    public WinHistogram merge(WinHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            counts[i] += other.counts[i];
+        totalCount += other.totalCount;
+        maxValue = Math.max(maxValue, other.maxValue);
+        return this;
+    }
+
+    /**
+     * Writes the histogram in a compact binary form: only the buckets with a count are written.
+     *
+     * @param out The output to write to.
+     * @throws IOException If writing fails.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        int nonEmpty = 0;
+        for (long count : counts)
+            nonEmpty += count != 0 ? 1 : 0;
+        out.writeLong(totalCount);
+        out.writeLong(maxValue);
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+    }
+
+    /**
+     * Reads a histogram written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in The input to read from.
+     * @return The histogram.
+     * @throws IOException If reading fails or the input is not a histogram.
+     */
+    static WinHistogram readFrom(DataInput in) throws IOException {
+        var histogram = new WinHistogram();
+        histogram.totalCount = in.readLong();
+        histogram.maxValue = in.readLong();
+        int nonEmpty = in.readInt();
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = in.readUnsignedShort();
+            if (index >= BUCKET_COUNT)
+                throw new IOException("Invalid histogram bucket: " + index);
+            histogram.counts[index] = in.readLong();
+        }
+        return histogram;
+    }
+
+    //*******************
+    //* UTILITY METHODS *
+    //*******************
+
+    private static int indexOf(long value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Negative value: " + value);
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+
+        // value in [2^exponent, 2^(exponent + 1)), its top SUB_BUCKET_BITS bits pick the bucket
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> shift) - HALF_COUNT;
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_COUNT + subBucket;
+    }
+
+    private static long lowestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % HALF_COUNT + HALF_COUNT;
+        return subBucket << shift;
+    }
+
+    private static long highestValueOf(int index) {
+        return index + 1 < BUCKET_COUNT ? lowestValueOf(index + 1) - 1 : Long.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,592 @@
+package com.amusnet.simulation;
+
+import com.amusnet.game.components.LineWin;
+import com.amusnet.game.components.RoundResult;
+import com.amusnet.util.Distributions;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+/**
+ * Sums the outcomes of many rounds by their multipliers, which do not depend on the bet (see
+ * {@link RoundResult#getTotalMultiplier()}), so that every win is an integer number of line bets,
+ * the sums are exact and hold for any bet.
+ * <br/><br/>
+ * Tallies are mergeable: rounds may be split among threads, each thread keeping its own tally,
+ * and the tallies merged afterwards in any order with the same result.
+ * <br/><br/>
+ * A round may be added with a weight, standing for that many rounds (e.g. a combination of weighted
+ * reel stops, see {@link FullCycleEnumerator}), in which case the spins and hits are weighted too.
+ * The totals are checked for overflow, so a tally is either exact or fails.
+ * <br/><br/>
+ * Besides the lines played, the total win and hits are kept for every smaller number of lines, from the
+ * line multipliers of the first lines of each round (see {@link RoundResult#getLineMultiplier(int)}),
+ * so that a single run gives the return to player of every lines-played setting.
+ * <br/><br/>
+ * The total win of every round is also recorded in a {@link WinHistogram}, giving the distribution of wins
+ * (percentiles, and the probability of a win of at least some multiple of the total bet).
+ * <br/><br/>
+ * The squares of the round wins are summed up too, in 128 bits, so the variance of the win per round
+ * (and the volatility index and confidence interval of the return to player) is exact as well,
+ * whatever the order the rounds are added or merged in. Lastly, the winning lines of every card
+ * and the rounds every scatter card wins in are counted. The memory taken is fixed by the game,
+ * whatever the number of rounds, and the tally can be written as text or as JSON.
+ */
+public class WinTally {
+
+    /**
+     * The volatility index is the standard deviation of the win per round times this quantile
+     * of the standard normal distribution, i.e. at a confidence of 90%.
+     */
+    public static final double VOLATILITY_INDEX_QUANTILE = 1.6448536269514722;
+
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final int[] REPORTED_THRESHOLDS = {100, 500, 1000};
+
+    private final int linesPlayed;
+
+    private long spins;
+    private long hits;
+    private long winFromLines;
+    private long winFromScatters;
+
+    // sum of the squared total win of every round, in line bets squared: high and low (unsigned) 64 bits
+    private long squaredWinsHigh;
+    private long squaredWinsLow;
+
+    // indexed by line
+    private final long[] lineWins;
+    private final long[] lineHits;
+
+    // indexed by card: line wins by winning card and scatter wins by scatter card,
+    // winning lines of the card and rounds the card won in as a scatter
+    private final long[] cardWins;
+    private final long[] cardLineHits;
+    private final long[] scatterHits;
+
+    // indexed by number of lines played, 1 to linesPlayed
+    private final long[] lineCountWins;
+    private final long[] lineCountHits;
+
+    // total win of every round, in line bets
+    private final WinHistogram histogram = new WinHistogram();
+
+    public WinTally(int linesPlayed, int cardIndexCount) {
+        this.linesPlayed = linesPlayed;
+        this.lineWins = new long[linesPlayed];
+        this.lineHits = new long[linesPlayed];
+        this.cardWins = new long[cardIndexCount];
+        this.cardLineHits = new long[cardIndexCount];
+        this.scatterHits = new long[cardIndexCount];
+        this.lineCountWins = new long[linesPlayed + 1];
+        this.lineCountHits = new long[linesPlayed + 1];
+    }
+
+    //******************
+    //* ACCESS METHODS *
+    //******************
+
+    public int getLinesPlayed() {
+        return linesPlayed;
+    }
+
+    /**
+     * @return The number of rounds, weighted if rounds were added with weights.
+     */
+    public long getSpins() {
+        return spins;
+    }
+
+    /**
+     * @return The number of rounds with a total win greater than zero.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The total amount bet, in line bets.
+     */
+    public long getTotalBet() {
+        return spins * linesPlayed;
+    }
+
+    /**
+     * @return The total amount won, in line bets.
+     */
+    public long getTotalWin() {
+        return winFromLines + winFromScatters;
+    }
+
+    public long getWinFromLines() {
+        return winFromLines;
+    }
+
+    public long getWinFromScatters() {
+        return winFromScatters;
+    }
+
+    /**
+     * @param line 0-based index of the line.
+     * @return The amount won on the line, in line bets.
+     */
+    public long getLineWin(int line) {
+        return lineWins[line];
+    }
+
+    /**
+     * @param line 0-based index of the line.
+     * @return The number of rounds the line won in.
+     */
+    public long getLineHits(int line) {
+        return lineHits[line];
+    }
+
+    /**
+     * @param card The card.
+     * @return The amount won by the card, on lines or as a scatter, in line bets.
+     */
+    public long getCardWin(int card) {
+        return card >= 0 && card < cardWins.length ? cardWins[card] : 0;
+    }
+
+    /**
+     * @param card The card.
+     * @return The number of winning lines of the card.
+     */
+    public long getCardLineHits(int card) {
+        return card >= 0 && card < cardLineHits.length ? cardLineHits[card] : 0;
+    }
+
+    /**
+     * @param card A scatter card.
+     * @return The number of rounds the scatter card won in.
+     */
+    public long getScatterHits(int card) {
+        return card >= 0 && card < scatterHits.length ? scatterHits[card] : 0;
+    }
+
+    /**
+     * @param card A scatter card.
+     * @return The fraction of rounds the scatter card won in.
+     */
+    public double getScatterTriggerRate(int card) {
+        return ratio(getScatterHits(card), spins);
+    }
+
+    /**
+     * @param lines A number of lines, from 1 to {@link #getLinesPlayed()}.
+     * @return The total amount won had only the first lines been played, in line bets.
+     */
+    public long getTotalWin(int lines) {
+        checkLineCount(lines);
+        return lineCountWins[lines];
+    }
+
+    /**
+     * @param lines A number of lines, from 1 to {@link #getLinesPlayed()}.
+     * @return The number of rounds with a total win greater than zero had only the first lines been played.
+     */
+    public long getHits(int lines) {
+        checkLineCount(lines);
+        return lineCountHits[lines];
+    }
+
+    /**
+     * @param lines A number of lines, from 1 to {@link #getLinesPlayed()}.
+     * @return The return to player had only the first lines been played.
+     */
+    public double getRtp(int lines) {
+        return ratio(getTotalWin(lines), spins * lines);
+    }
+
+    /**
+     * @param lines A number of lines, from 1 to {@link #getLinesPlayed()}.
+     * @return The hit frequency had only the first lines been played.
+     */
+    public double getHitFrequency(int lines) {
+        return ratio(getHits(lines), spins);
+    }
+
+    /**
+     * @return The distribution of the total win per round, in line bets.
+     */
+    public WinHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100.
+     * @return The win per round at or below which the given percentage of rounds are, in total bets,
+     * within the precision of the {@link WinHistogram}.
+     */
+    public double getWinAtPercentile(double percentile) {
+        return (double) histogram.getValueAtPercentile(percentile) / linesPlayed;
+    }
+
+    /**
+     * @param totalBets A multiple of the total bet, not negative.
+     * @return The probability of a round winning at least that multiple of the total bet,
+     * within the precision of the {@link WinHistogram}.
+     */
+    public double getExceedanceProbability(double totalBets) {
+        return histogram.getExceedanceProbability((long) Math.ceil(totalBets * linesPlayed));
+    }
+
+    /**
+     * @return The return to player, i.e. the total win divided by the total bet.
+     */
+    public double getRtp() {
+        return ratio(getTotalWin(), getTotalBet());
+    }
+
+    /**
+     * @return The fraction of rounds with a total win greater than zero.
+     */
+    public double getHitFrequency() {
+        return ratio(hits, spins);
+    }
+
+    /**
+     * @return The variance of the win per round, in total bets squared, computed exactly from the sums
+     * of the wins and of their squares.
+     */
+    public double getVariance() {
+        if (spins == 0)
+            return 0;
+        BigInteger n = BigInteger.valueOf(spins);
+        BigInteger squaredWins = BigInteger.valueOf(squaredWinsHigh).shiftLeft(Long.SIZE)
+                .add(new BigInteger(Long.toUnsignedString(squaredWinsLow)));
+        BigInteger totalWin = BigInteger.valueOf(getTotalWin());
+        // (n * sum of squares - sum^2) / n^2, in line bets squared
+        double deviations = n.multiply(squaredWins).subtract(totalWin.multiply(totalWin)).doubleValue();
+        return deviations / ((double) spins * spins) / ((double) linesPlayed * linesPlayed);
+    }
+
+    /**
+     * @return The standard deviation of the win per round, in total bets.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return The standard deviation of the win per round times {@link #VOLATILITY_INDEX_QUANTILE}.
+     */
+    public double getVolatilityIndex() {
+        return VOLATILITY_INDEX_QUANTILE * getStandardDeviation();
+    }
+
+    /**
+     * @return The standard error of the return to player, i.e. of the mean win per round.
+     */
+    public double getStandardError() {
+        return spins == 0 ? Double.POSITIVE_INFINITY : getStandardDeviation() / Math.sqrt(spins);
+    }
+
+    /**
+     * @param confidence The confidence level, strictly between 0 and 1 (e.g. 0.99).
+     * @return The half-width of the normal confidence interval of the return to player.
+     */
+    public double getRtpHalfWidth(double confidence) {
+        if (!(confidence > 0 && confidence < 1))
+            throw new IllegalArgumentException("Invalid confidence: " + confidence);
+        return Distributions.normalQuantile(0.5 + confidence / 2) * getStandardError();
+    }
+
+    /**
+     * @return The largest win of a round, in total bets.
+     */
+    public double getMaxWin() {
+        return (double) histogram.getMaxValue() / linesPlayed;
+    }
+
+    /**
+     * @param line 0-based index of the line.
+     * @return The part of the return to player won on the line.
+     */
+    public double getLineRtp(int line) {
+        return ratio(lineWins[line], getTotalBet());
+    }
+
+    /**
+     * @param card The card.
+     * @return The part of the return to player won by the card.
+     */
+    public double getCardRtp(int card) {
+        return ratio(getCardWin(card), getTotalBet());
+    }
+
+    //****************
+    //* MAIN METHODS *
+    //****************
+
+    /**
+     * Adds the outcome of a round played on {@link #getLinesPlayed()} lines, for any bet.
+     *
+     * @param result The result of the round.
+     */
+    public void add(RoundResult result) {
+        add(result, 1);
+    }
+
+    /**
+     * Adds the outcome of a round played on {@link #getLinesPlayed()} lines, for any bet,
+     * standing for weight rounds with the same outcome.
+     *
+     * @param result The result of the round.
+     * @param weight The number of rounds the round stands for, not negative.
+     * @throws ArithmeticException If the weighted totals overflow a long. The tally is unusable afterwards.
+     */
+    public void add(RoundResult result, long weight) {
+        spins = Math.addExact(spins, weight);
+
+        // the parts of a total cannot overflow if the total does not
+        long roundLineWin = 0;
+        for (int i = 0; i < linesPlayed; i++) {
+            LineWin lineWin = result.getLineWin(i);
+            if (!lineWin.isWin())
+                continue;
+            long win = lineWin.getMultiplier();
+            lineWins[i] += win * weight;
+            lineHits[i] += weight;
+            cardWins[lineWin.getCard()] += win * weight;
+            cardLineHits[lineWin.getCard()] += weight;
+            roundLineWin += win;
+        }
+        winFromLines = Math.addExact(winFromLines, Math.multiplyExact(roundLineWin, weight));
+
+        long roundScatterWin = 0;
+        for (int i = 0; i < result.getScatterTypeCount(); i++) {
+            long win = (long) result.getScatterMultiplier(i) * linesPlayed;
+            if (win == 0)
+                continue;
+            cardWins[result.getScatter(i)] += win * weight;
+            scatterHits[result.getScatter(i)] += weight;
+            roundScatterWin += win;
+        }
+        winFromScatters = Math.addExact(winFromScatters, Math.multiplyExact(roundScatterWin, weight));
+        Math.addExact(winFromLines, winFromScatters);
+
+        long roundWin = roundLineWin + roundScatterWin;
+        histogram.record(roundWin, weight);
+        if (roundWin == 0)
+            return;
+        hits += weight;
+
+        long squaredWin = Math.multiplyExact(roundWin, roundWin);
+        addSquaredWins(Math.multiplyHigh(squaredWin, weight), squaredWin * weight);
+
+        // not more than the total of all lines played
+        long scatterMultiplier = result.getScatterMultiplier();
+        for (int lines = 1; lines <= linesPlayed; lines++) {
+            long win = result.getLineMultiplier(lines) + scatterMultiplier * lines;
+            if (win == 0)
+                continue;
+            lineCountWins[lines] += win * weight;
+            lineCountHits[lines] += weight;
+        }
+    }
+
+    /**
+     * Adds the rounds of another tally to this one.
+     *
+     * @param other A tally for the same number of lines and cards.
+     * @return This tally.
+     * @throws ArithmeticException If the totals overflow a long.
+     */
+    public WinTally merge(WinTally other) {
+        if (other.linesPlayed != linesPlayed || other.cardWins.length != cardWins.length)
+            throw new IllegalArgumentException("Cannot merge tallies of different games");
+
+        spins = Math.addExact(spins, other.spins);
+        hits += other.hits;
+        winFromLines = Math.addExact(winFromLines, other.winFromLines);
+        winFromScatters = Math.addExact(winFromScatters, other.winFromScatters);
+        Math.addExact(winFromLines, winFromScatters);
+        addSquaredWins(other.squaredWinsHigh, other.squaredWinsLow);
+        for (int i = 0; i < linesPlayed; i++) {
+            lineWins[i] += other.lineWins[i];
+            lineHits[i] += other.lineHits[i];
+        }
+        for (int card = 0; card < cardWins.length; card++) {
+            cardWins[card] += other.cardWins[card];
+            cardLineHits[card] += other.cardLineHits[card];
+            scatterHits[card] += other.scatterHits[card];
+        }
+        for (int lines = 1; lines <= linesPlayed; lines++) {
+            lineCountWins[lines] += other.lineCountWins[lines];
+            lineCountHits[lines] += other.lineCountHits[lines];
+        }
+        histogram.merge(other.histogram);
+        return this;
+    }
+
+    /**
+     * @return The tally as a JSON object, with the main figures of {@link #toString()}, in total bets.
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append(String.format(Locale.ROOT, "\"spins\":%d,\"linesPlayed\":%d,\"hits\":%d,\"hitFrequency\":%s,",
+                spins, linesPlayed, hits, number(getHitFrequency())));
+        sb.append(String.format(Locale.ROOT, "\"rtp\":%s,\"variance\":%s,\"standardDeviation\":%s,",
+                number(getRtp()), number(getVariance()), number(getStandardDeviation())));
+        sb.append(String.format(Locale.ROOT, "\"volatilityIndex\":%s,\"maxWin\":%s,",
+                number(getVolatilityIndex()), number(getMaxWin())));
+
+        sb.append("\"lineHits\":[");
+        for (int i = 0; i < linesPlayed; i++)
+            sb.append(i == 0 ? "" : ",").append(lineHits[i]);
+
+        sb.append("],\"cardLineHits\":{");
+        appendCards(sb, cardLineHits, card -> Long.toString(cardLineHits[card]));
+        sb.append("},\"scatterTriggerRates\":{");
+        appendCards(sb, scatterHits, card -> number(getScatterTriggerRate(card)));
+        return sb.append("}}").toString();
+    }
+
+    /**
+     * Writes the tally in binary form, for checkpoints and shard files.
+     *
+     * @param out The output to write to.
+     * @throws IOException If writing fails.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(linesPlayed);
+        out.writeInt(cardWins.length);
+        out.writeLong(spins);
+        out.writeLong(hits);
+        out.writeLong(winFromLines);
+        out.writeLong(winFromScatters);
+        out.writeLong(squaredWinsHigh);
+        out.writeLong(squaredWinsLow);
+        writeLongs(out, lineWins);
+        writeLongs(out, lineHits);
+        writeLongs(out, cardWins);
+        writeLongs(out, cardLineHits);
+        writeLongs(out, scatterHits);
+        writeLongs(out, lineCountWins);
+        writeLongs(out, lineCountHits);
+        histogram.writeTo(out);
+    }
+
+    /**
+     * Reads a tally written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in The input to read from.
+     * @return The tally.
+     * @throws IOException If reading fails.
+     */
+    static WinTally readFrom(DataInput in) throws IOException {
+        var tally = new WinTally(in.readInt(), in.readInt());
+        tally.spins = in.readLong();
+        tally.hits = in.readLong();
+        tally.winFromLines = in.readLong();
+        tally.winFromScatters = in.readLong();
+        tally.squaredWinsHigh = in.readLong();
+        tally.squaredWinsLow = in.readLong();
+        readLongs(in, tally.lineWins);
+        readLongs(in, tally.lineHits);
+        readLongs(in, tally.cardWins);
+        readLongs(in, tally.cardLineHits);
+        readLongs(in, tally.scatterHits);
+        readLongs(in, tally.lineCountWins);
+        readLongs(in, tally.lineCountHits);
+        tally.histogram.merge(WinHistogram.readFrom(in));
+        return tally;
+    }
+
+    //*******************
+    //* UTILITY METHODS *
+    //*******************
+
+    static void writeLongs(DataOutput out, long[] values) throws IOException {
+        for (long value : values)
+            out.writeLong(value);
+    }
+
+    static void readLongs(DataInput in, long[] values) throws IOException {
+        for (int i = 0; i < values.length; i++)
+            values[i] = in.readLong();
+    }
+
+    /**
+     * Adds a 128-bit number to the sum of the squared wins.
+     */
+    private void addSquaredWins(long high, long low) {
+        long sum = squaredWinsLow + low;
+        long carry = Long.compareUnsigned(sum, low) < 0 ? 1 : 0;
+        squaredWinsHigh = Math.addExact(Math.addExact(squaredWinsHigh, high), carry);
+        squaredWinsLow = sum;
+    }
+
+    private void checkLineCount(int lines) {
+        if (lines < 1 || lines > linesPlayed)
+            throw new IndexOutOfBoundsException("Lines " + lines + " of " + linesPlayed + " played");
+    }
+
+    private static double ratio(long dividend, long divisor) {
+        return divisor == 0 ? 0 : (double) dividend / divisor;
+    }
+
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private static void appendCards(StringBuilder sb, long[] counts, IntFunction<String> value) {
+        String separator = "";
+        for (int card = 0; card < counts.length; card++)
+            if (counts[card] != 0) {
+                sb.append(separator).append('"').append(card).append("\":").append(value.apply(card));
+                separator = ",";
+            }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        String nl = System.lineSeparator();
+
+        sb.append(String.format("Spins: %d, lines played: %d%n", spins, linesPlayed));
+        sb.append(String.format("RTP: %.6f%% (lines %.6f%%, scatters %.6f%%)%n", 100 * getRtp(),
+                100 * ratio(winFromLines, getTotalBet()), 100 * ratio(winFromScatters, getTotalBet())));
+        sb.append(String.format("Hit frequency: %.6f%%%n", 100 * getHitFrequency()));
+        sb.append(String.format("Standard deviation: %.6f, volatility index: %.6f (total bets)%n",
+                getStandardDeviation(), getVolatilityIndex()));
+
+        sb.append("RTP by line:").append(nl);
+        for (int i = 0; i < linesPlayed; i++)
+            sb.append(String.format("  Line %2d: %.6f%%, hit frequency %.6f%%%n",
+                    i + 1, 100 * getLineRtp(i), 100 * ratio(lineHits[i], spins)));
+
+        sb.append("RTP by lines played:").append(nl);
+        for (int lines = 1; lines <= linesPlayed; lines++)
+            sb.append(String.format("  %2d lines: %.6f%%, hit frequency %.6f%%%n",
+                    lines, 100 * getRtp(lines), 100 * getHitFrequency(lines)));
+
+        sb.append("RTP by card:").append(nl);
+        for (int card = 0; card < cardWins.length; card++)
+            if (cardWins[card] != 0)
+                sb.append(String.format("  Card %2d: %.6f%%, winning lines %d%n",
+                        card, 100 * getCardRtp(card), cardLineHits[card]));
+
+        sb.append("Scatter trigger rates:").append(nl);
+        for (int card = 0; card < scatterHits.length; card++)
+            if (scatterHits[card] != 0)
+                sb.append(String.format("  Card %2d: %.6f%%%n", card, 100 * getScatterTriggerRate(card)));
+
+        sb.append("Win distribution, in total bets:").append(nl);
+        for (double percentile : REPORTED_PERCENTILES)
+            sb.append(String.format("  %6.2f%% of rounds win at most %.2f%n", percentile, getWinAtPercentile(percentile)));
+        sb.append(String.format("  Max win: %.2f%n", getMaxWin()));
+        for (int threshold : REPORTED_THRESHOLDS)
+            sb.append(String.format("  P(win >= %dx): %.8f%n", threshold, getExceedanceProbability(threshold)));
+
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.amusnet.util;
+
+/**
+ * A utility class for the tail probabilities (p-values) of the distributions used by the statistical
+ * tests of the game, computed with the classic series and continued fraction expansions
+ * (Numerical Recipes, chapter 6), which are accurate to about 1e-12 relative error, and for
+ * the quantiles of the normal distribution used by confidence intervals.
+ */
+public final class Distributions {
+
+    private static final int MAX_ITERATIONS = 10_000;
+    private static final double EPSILON = 1e-15;
+    private static final double TINY = 1e-300;
+
+    private static final double[] LANCZOS = {
+            57.1562356658629235, -59.5979603554754912, 14.1360979747417471, -0.491913816097620199,
+            .339946499848118887e-4, .465236289270485756e-4, -.983744753048795646e-4, .158088703224912494e-3,
+            -.210264441724104883e-3, .217439618115212643e-3, -.164318106536763890e-3, .844182239838527433e-4,
+            -.261908384015814087e-4, .368991826595316234e-5
+    };
+
+    // coefficients of the rational approximations of AS 241, lowest degree first
+    private static final double[] AS241_A = {
+            3.387132872796366608, 133.14166789178437745, 1971.5909503065514427, 13731.693765509461125,
+            45921.953931549871457, 67265.770927008700853, 33430.575583588128105, 2509.0809287301226727
+    };
+    private static final double[] AS241_B = {
+            1, 42.313330701600911252, 687.1870074920579083, 5394.1960214247511077,
+            21213.794301586595867, 39307.89580009271061, 28729.085735721942674, 5226.495278852545925
+    };
+    private static final double[] AS241_C = {
+            1.42343711074968357734, 4.6303378461565452959, 5.7694972214606914055, 3.64784832476320460504,
+            1.27045825245236838258, 0.24178072517745061177, 0.0227238449892691845833, 7.7454501427834140764e-4
+    };
+    private static final double[] AS241_D = {
+            1, 2.05319162663775882187, 1.6763848301838038494, 0.68976733498510000455,
+            0.14810397642748007459, 0.0151986665636164571966, 5.475938084995344946e-4, 1.05075007164441684324e-9
+    };
+    private static final double[] AS241_E = {
+            6.6579046435011037772, 5.4637849111641143699, 1.7848265399172913358, 0.29656057182850489123,
+            0.026532189526576123093, 0.0012426609473880784386, 2.71155556874348757815e-5, 2.01033439929228813265e-7
+    };
+    private static final double[] AS241_F = {
+            1, 0.59983220655588793769, 0.13692988092273580531, 0.0148753612908506148525,
+            7.868691311456132591e-4, 1.8463183175100546818e-5, 1.4215117583164458887e-7, 2.04426310338993978564e-15
+    };
+
+    private Distributions() {
+    }
+
+    /**
+     * @param x The chi-square statistic, not negative.
+     * @param degreesOfFreedom The degrees of freedom, positive.
+     * @return The probability that a chi-square variable with the given degrees of freedom is at least x.
+     */
+    public static double chiSquareSurvival(double x, int degreesOfFreedom) {
+        if (degreesOfFreedom < 1)
+            throw new IllegalArgumentException("Invalid degrees of freedom: " + degreesOfFreedom);
+        return regularizedGammaQ(degreesOfFreedom / 2.0, Math.max(0, x) / 2);
+    }
+
+    /**
+     * @param z The statistic of a standard normal variable.
+     * @return The two-sided p-value, i.e. the probability that a standard normal variable is at least |z| away from 0.
+     */
+    public static double normalTwoSided(double z) {
+        return regularizedGammaQ(0.5, z * z / 2);    // = erfc(|z| / sqrt(2))
+    }
+
+    /**
+     * @param p A probability, strictly between 0 and 1.
+     * @return The value a standard normal variable is below with probability p (Wichura's algorithm AS 241,
+     * accurate to about 1e-16).
+     */
+    public static double normalQuantile(double p) {
+        if (!(p > 0 && p < 1))
+            throw new IllegalArgumentException("Invalid probability: " + p);
+
+        double q = p - 0.5;
+        if (Math.abs(q) <= 0.425) {
+            double r = 0.180625 - q * q;
+            return q * polynomial(AS241_A, r) / polynomial(AS241_B, r);
+        }
+
+        double r = Math.sqrt(-Math.log(q < 0 ? p : 1 - p));
+        double x = r <= 5
+                ? polynomial(AS241_C, r - 1.6) / polynomial(AS241_D, r - 1.6)
+                : polynomial(AS241_E, r - 5) / polynomial(AS241_F, r - 5);
+        return q < 0 ? -x : x;
+    }
+
+    /**
+     * @param x The value, positive.
+     * @return The natural logarithm of the gamma function at x (Lanczos approximation).
+     */
+    public static double logGamma(double x) {
+        double y = x, tmp = x + 5.24218750000000000;
+        tmp = (x + 0.5) * Math.log(tmp) - tmp;
+        double sum = 0.999999999999997092;
+        for (double coefficient : LANCZOS)
+            sum += coefficient / ++y;
+        return tmp + Math.log(2.5066282746310005 * sum / x);
+    }
+
+    // Horner's rule
+    private static double polynomial(double[] coefficients, double x) {
+        double value = 0;
+        for (int i = coefficients.length - 1; i >= 0; i--)
+            value = value * x + coefficients[i];
+        return value;
+    }
+
+    /**
+     * @return Q(a, x) = Gamma(a, x) / Gamma(a), the regularized upper incomplete gamma function.
+     */
+    private static double regularizedGammaQ(double a, double x) {
+        if (x == 0)
+            return 1;
+        if (x < a + 1)
+            return 1 - gammaSeries(a, x);
+        return gammaContinuedFraction(a, x);
+    }
+
+    // P(a, x) by its series, converging fast for x < a + 1
+    private static double gammaSeries(double a, double x) {
+        double ap = a, sum = 1 / a, term = sum;
+        for (int n = 0; n < MAX_ITERATIONS; n++) {
+            term *= x / ++ap;
+            sum += term;
+            if (Math.abs(term) < Math.abs(sum) * EPSILON)
+                break;
+        }
+        return sum * Math.exp(-x + a * Math.log(x) - logGamma(a));
+    }
+
+    // Q(a, x) by its continued fraction (modified Lentz's method), converging fast for x >= a + 1
+    private static double gammaContinuedFraction(double a, double x) {
+        double b = x + 1 - a, c = 1 / TINY, d = 1 / b, h = d;
+        for (int i = 1; i < MAX_ITERATIONS; i++) {
+            double an = -i * (i - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < TINY)
+                d = TINY;
+            c = b + an / c;
+            if (Math.abs(c) < TINY)
+                c = TINY;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < EPSILON)
+                break;
+        }
+        return Math.exp(-x + a * Math.log(x) - logGamma(a)) * h;
+    }
+
+}
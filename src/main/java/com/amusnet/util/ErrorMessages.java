@@ -69,14 +69,19 @@ public class ErrorMessages {
         public static final String TITLE_EMSG_INVALID_LINES_INPUT = "Invalid lines input";
         public static final String TITLE_EMSG_INVALID_BET_INPUT = "Invalid bet input";
         public static final String TITLE_EMSG_INVALID_CURRENCY_FORMAT = "Invalid Currency Format";
+        public static final String TITLE_EMSG_INVALID_AMOUNT = "Invalid Amount";
         public static final String TITLE_EMSG_INCORRECT_LINES_INPUT = "Incorrect number of lines";
         public static final String TITLE_EMSG_INCORRECT_BET_INPUT = "Incorrect bet amount";
         public static final String TITLE_EMSG_REELS_DISCREPANCY = "Reels discrepancy";
+        public static final String TITLE_EMSG_EMPTY_REEL_ARRAY = "Empty reel array";
+        public static final String TITLE_EMSG_REEL_WEIGHTS_DISCREPANCY = "Reel weights discrepancy";
+        public static final String TITLE_EMSG_INVALID_REEL_WEIGHTS = "Invalid reel weights";
         public static final String TITLE_EMSG_TABLE_DUPLICATE_CARDS = "Duplicate card(s)";
         public static final String TITLE_EMSG_TABLE_DUPLICATE_OCCURRENCE = "Card occurrence duplication";
         public static final String TITLE_EMSG_TABLE_MULTIPLIERS_DISCREPANCY = "Card multipliers discrepancy";
         public static final String TITLE_EMSG_TABLE_OCCURRENCES_DISCREPANCY = "Card occurrences discrepancy";
         public static final String TITLE_EMSG_TABLE_MISSING_CARDS = "Missing cards in multipliers table";
+        public static final String TITLE_EMSG_TABLE_INVALID_CARD_FACE = "Invalid card face";
         public static final String TITLE_EMSG_NONEXISTENT_SCATTER = "Scatter based on nonexistent card";
         public static final String TITLE_EMSG_NONEXISTENT_WILDCARD = "Wildcard based on nonexistent card";
     }
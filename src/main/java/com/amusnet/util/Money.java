@@ -0,0 +1,55 @@
+package com.amusnet.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A utility class for converting amounts of money to and from minor units, e.g. cents.
+ * <br/><br/>
+ * The game holds every amount (balance, bets, wins) as a long number of minor units, so that
+ * arithmetic is exact. The scale is the number of fraction digits of the currency, e.g. for a scale of 2,
+ * an amount of 12.34 is held as 1234 minor units. Conversions only happen where amounts are read
+ * (configuration, console) or written (console).
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Converts an amount to minor units.
+     *
+     * @param amount The amount.
+     * @param scale The number of fraction digits of the currency.
+     * @return The amount in minor units.
+     * @throws ArithmeticException If the amount has more fraction digits than the scale, or does not fit in a long.
+     */
+    public static long toMinorUnits(BigDecimal amount, int scale) {
+        return amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Parses an amount and converts it to minor units.
+     *
+     * @param amount The amount, e.g. "12.34".
+     * @param scale The number of fraction digits of the currency.
+     * @return The amount in minor units.
+     * @throws NumberFormatException If the amount is not a number.
+     * @throws ArithmeticException If the amount has more fraction digits than the scale, or does not fit in a long.
+     */
+    public static long parse(String amount, int scale) {
+        return toMinorUnits(new BigDecimal(amount.trim()), scale);
+    }
+
+    /**
+     * Converts minor units back to an amount.
+     *
+     * @param minorUnits The amount in minor units.
+     * @param scale The number of fraction digits of the currency.
+     * @return The amount.
+     */
+    public static BigDecimal toAmount(long minorUnits, int scale) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+}
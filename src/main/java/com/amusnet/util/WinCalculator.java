@@ -1,44 +1,36 @@
 package com.amusnet.util;
 
-import com.amusnet.config.MultipliersTable;
+import com.amusnet.config.PayTable;
 import com.amusnet.exception.MissingTableElementException;
 
 /**
  * A utility class for handling separate calculations for cards.
+ * Line wins are looked up in the {@link PayTable} (or the line outcome table) directly on the spin path,
+ * so only scatter multipliers are calculated here.
  */
 public class WinCalculator {
-    private final MultipliersTable table;
+    private final PayTable table;
 
-    public WinCalculator(MultipliersTable table) {
+    public WinCalculator(PayTable table) {
         this.table = table;
     }
 
-    public double calculateRegularWin(Integer card, Integer occurrenceCount, double betAmount) throws MissingTableElementException {
-        var targetCardRightColumns = table.getData().get(card);
-        if (targetCardRightColumns == null)
-            throw new MissingTableElementException("No such card in multipliers table");
-
-        var multiplicationAmount = targetCardRightColumns.get(occurrenceCount);
-        if (multiplicationAmount == null)
-            throw new MissingTableElementException("No such occurrence count card in multipliers table");
-
-        return betAmount * multiplicationAmount;
-    }
-
-    public double calculateScatterWin(Integer scatterValue, int scatterCount, double betAmount) throws MissingTableElementException {
-        if (!table.getData().containsKey(scatterValue))
+    /**
+     * The multiplier of the total bet for a number of scatter cards on screen, independent of the bet.
+     *
+     * @return The multiplier, or 0 if there are not enough scatter cards (or none at all).
+     * @throws MissingTableElementException If the scatter card is not in the table.
+     */
+    public int calculateScatterMultiplier(int scatterValue, int scatterCount) throws MissingTableElementException {
+        if (!table.contains(scatterValue))
             throw new MissingTableElementException("No such card in multipliers table");
 
         // If Card class weren't deprecated, it'd be useful here to easily check whether
         // scatterValue is actually a scatter value, without additional fields or arguments
 
-        // If the amount of scatters on screen is a valid win amount
-        if (table.getData().get(scatterValue).get(scatterCount) != null) {
-            // then calculate and return the win amount.
-            Integer multiplier = table.getData().get(scatterValue).get(scatterCount);
-            return betAmount * multiplier;
-        }
-        return 0.0; // not enough scatters or none at all
+        // If the amount of scatters on screen is a valid win amount, then return its multiplier,
+        // otherwise it is 0 (not enough scatters or none at all)
+        return table.multiplier(scatterValue, scatterCount);
     }
 
 }
@@ -0,0 +1,104 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.simulation.FullCycleEnumerator;
+import com.amusnet.simulation.MonteCarloSimulator;
+import com.amusnet.simulation.SimulationResult;
+import com.amusnet.simulation.WinTally;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CheckpointTest {
+
+    private static final long SPINS = 5L * MonteCarloSimulator.BATCH_SIZE + 123;
+    private static final long SEED = 31337L;
+
+    private final GameConfig config = RtpEnumerationTest.smallConfig();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void interruptedSimulation_resumesToBitIdenticalResult() throws IOException {
+        Path checkpoint = directory.resolve("simulation.ckpt");
+        SimulationResult uninterrupted = simulator(2).simulate(SPINS, SEED);
+
+        simulator(1).simulate(3L * MonteCarloSimulator.BATCH_SIZE, SEED, checkpoint);
+        SimulationResult resumed = simulator(3).simulate(SPINS, SEED, checkpoint);
+
+        assertThat(resumed.getTally().getSpins()).isEqualTo(SPINS);
+        assertThat(resumed.getTally()).usingRecursiveComparison().isEqualTo(uninterrupted.getTally());
+    }
+
+    @Test
+    void finishedSimulation_resumedWithoutPlaying() throws IOException {
+        Path checkpoint = directory.resolve("simulation.ckpt");
+        SimulationResult first = simulator(2).simulate(SPINS, SEED, checkpoint);
+        SimulationResult again = simulator(2).simulate(SPINS, SEED, checkpoint);
+
+        assertThat(again.getTally()).usingRecursiveComparison().isEqualTo(first.getTally());
+    }
+
+    @Test
+    void checkpointOfAnotherJob_throws() throws IOException {
+        Path checkpoint = directory.resolve("simulation.ckpt");
+        simulator(2).simulate(SPINS, SEED, checkpoint);
+
+        assertThatThrownBy(() -> simulator(2).simulate(SPINS, SEED + 1, checkpoint))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("seed");
+        assertThatThrownBy(() -> new MonteCarloSimulator(config, 2, 2).simulate(SPINS, SEED, checkpoint))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("lines");
+        assertThatThrownBy(() -> simulator(2).simulate(SPINS + 1, SEED, checkpoint))
+                .as("Partial last batch").isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FullCycleEnumerator(config).enumerate(new ForkJoinPool(2), checkpoint))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void checkpointOfScreenWithOtherRowCount_throws() throws IOException {
+        Path checkpoint = directory.resolve("simulation.ckpt");
+        simulator(2).simulate(SPINS, SEED, checkpoint);
+        GameConfig taller = RtpEnumerationTest.smallConfig();
+        taller.setScreenRowCount(4);
+
+        assertThatThrownBy(() -> new MonteCarloSimulator(taller, taller.getLineCount(), 2).simulate(SPINS, SEED, checkpoint))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("different configuration");
+    }
+
+    @Test
+    void notACheckpoint_throws() throws IOException {
+        Path checkpoint = Files.writeString(directory.resolve("garbage.ckpt"), "not a checkpoint");
+
+        assertThatThrownBy(() -> simulator(2).simulate(SPINS, SEED, checkpoint)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void enumerationInParts_sameAsWholeCycle() throws IOException {
+        Path checkpoint = directory.resolve("enumeration.ckpt");
+        var enumerator = new FullCycleEnumerator(config);
+        enumerator.setCheckpointInterval(Duration.ZERO);
+        WinTally whole = enumerator.enumerate(new ForkJoinPool(3));
+
+        WinTally part = enumerator.enumerate(new ForkJoinPool(2), checkpoint, 5000);
+        WinTally resumed = enumerator.enumerate(new ForkJoinPool(3), checkpoint);
+
+        assertThat(part.getSpins()).isEqualTo(5000);
+        assertThat(resumed).usingRecursiveComparison().isEqualTo(whole);
+    }
+
+    private MonteCarloSimulator simulator(int threads) {
+        var simulator = new MonteCarloSimulator(config, config.getLineCount(), threads);
+        simulator.setCheckpointInterval(Duration.ZERO);
+        return simulator;
+    }
+
+}
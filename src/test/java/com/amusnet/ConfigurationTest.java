@@ -55,6 +55,72 @@ public class ConfigurationTest {
                 .isEqualTo(config2);
     }
 
+    @Test
+    public void givenConfigurationFromXml_compiledPayTableMatchesMultipliersTable() {
+        var table = config1.getTable();
+        var payTable = config1.getPayTable();
+        for (int card = -1; card <= payTable.getCardIndexCount(); card++) {
+            var rightColumns = table.getData().get(card);
+            for (int occurrences = -1; occurrences <= table.getMaxStreakCount() + 1; occurrences++) {
+                Integer expected = rightColumns == null ? null : rightColumns.get(occurrences);
+                Assertions.assertThat(payTable.multiplier(card, occurrences))
+                        .as("Multiplier for card %d x%d", card, occurrences)
+                        .isEqualTo(expected == null ? 0 : expected);
+            }
+        }
+    }
+
+    @Test
+    public void givenConfigurationFromXml_reelWindowsMatchReelArrays() {
+        var windows = config1.getReelWindows();
+        int rows = config1.getScreenRowCount();
+        for (int reel = 0; reel < windows.getReelCount(); reel++) {
+            var reelArray = config1.getReels().get(reel);
+            assertEquals(reelArray.size(), windows.getReelLength(reel));
+            for (int stop = 0; stop < reelArray.size(); stop++) {
+                int window = windows.windowIndex(reel, stop);
+                int distinctTotal = 0;
+                for (int row = 0; row < rows; row++) {
+                    assertEquals(reelArray.get((stop + row) % reelArray.size()), windows.card(window + row));
+                    if (windows.distinctCard(window + row) >= 0) {
+                        distinctTotal += windows.distinctCount(window + row);
+                        assertEquals(windows.distinctCount(window + row),
+                                Long.bitCount(windows.distinctMask(window + row)));
+                    }
+                }
+                assertEquals(rows, distinctTotal);
+            }
+        }
+
+        // example from ReelScreen#generateScreen(int[])
+        int window = windows.windowIndex(0, 28);
+        assertEquals(List.of(2, 2, 6), List.of(windows.card(window), windows.card(window + 1), windows.card(window + 2)));
+        assertThrows(IndexOutOfBoundsException.class, () -> windows.windowIndex(0, 30));
+    }
+
+    @Test
+    public void givenNormalCurrencyFormat_amountsAreHeldInMinorUnits() {
+        GameConfig configuration = new GameConfig();
+        configuration.getCurrencyFormat().applyPattern("#.00");
+
+        assertEquals(2, configuration.getCurrencyScale());
+        assertEquals(1234, configuration.parseMoney("12.34"));
+        assertEquals(1200, configuration.parseMoney("12"));
+        assertEquals(100, configuration.getMinimumBet());
+        assertEquals("12.34", configuration.formatMoney(1234));
+        assertThrows(ArithmeticException.class, () -> configuration.parseMoney("12.345"));
+        assertThrows(NumberFormatException.class, () -> configuration.parseMoney("twelve"));
+    }
+
+    @Test
+    public void givenRoundCurrencyFormat_amountsAreHeldInWholeUnits() {
+        assertEquals(0, config1.getCurrencyScale());
+        assertEquals(100000, config1.getStartingBalance());
+        assertEquals(10, config1.getBetLimit());
+        assertEquals(1, config1.getMinimumBet());
+        assertThrows(ArithmeticException.class, () -> config1.parseMoney("1.5"));
+    }
+
     private static void configManualSetup(GameConfig configuration) {
 
         configuration.setScreenRowCount(3);
@@ -193,6 +259,14 @@ public class ConfigurationTest {
             ));
         }
 
+        @Test
+        void configurationXmlHasAmountWithTooManyFractionDigits_shouldThrowConfigInitException() throws IOException {
+            setAmountWithTooManyFractionDigits();
+            Exception e = getException();
+            assertEquals(e.getMessage(), errorMessages.message
+                    (ErrorMessages.DefaultMessageTitles.TITLE_EMSG_INVALID_AMOUNT));
+        }
+
         @Test
         void configurationXmlHasInvalidColumnSize_shouldThrowConfigInitException() {
             setInvalidColumnSize();
@@ -209,6 +283,14 @@ public class ConfigurationTest {
                     (ErrorMessages.DefaultMessageTitles.TITLE_EMSG_REELS_DISCREPANCY));
         }
 
+        @Test
+        void configurationXmlHasReelWeightsDiscrepancy_shouldThrowConfigInitException() throws IOException {
+            setReelWeightsDiscrepancy();
+            Exception e = getException();
+            assertEquals(e.getMessage(), errorMessages.message
+                    (ErrorMessages.DefaultMessageTitles.TITLE_EMSG_REEL_WEIGHTS_DISCREPANCY));
+        }
+
         @Test
         void configurationXmlHasDuplicateCardInTable_shouldThrowConfigInitException() {
             setDuplicateCardInTable();
@@ -561,6 +643,17 @@ public class ConfigurationTest {
                     </properties>""";
         }
 
+        private void setReelWeightsDiscrepancy() throws IOException {
+            // three weights for a reel of 30 stops
+            invalidXmlContent = Files.readString(Path.of("src/main/resources/properties.xml"))
+                    .replaceFirst("<reelArray>", "<reelArray weights=\"1,2,3\">");
+        }
+
+        private void setAmountWithTooManyFractionDigits() throws IOException {
+            invalidXmlContent = Files.readString(Path.of("src/main/resources/properties.xml"))
+                    .replaceFirst("<betlimit>10</betlimit>", "<betlimit>10.005</betlimit>");
+        }
+
         private void setDuplicateCardInTable() {
             invalidXmlContent = """
                     <?xml version="1.0" encoding="UTF-8" ?>
@@ -122,12 +122,13 @@ public class DatabaseTest {
             assertThat(gameInstanceTable).column("lines_played")
                     .value(i).isEqualTo(Integer.parseInt(lineAndBetInputs[0]));
 
+            // amounts are stored in minor units
             assertThat(gameInstanceTable).column("bet_amount")
-                    .value(i).isEqualTo(Double.parseDouble(lineAndBetInputs[1]));
+                    .value(i).isEqualTo(CONFIG.parseMoney(lineAndBetInputs[1]));
 
             // TODO find an elegant way to check for exact sum
             assertThat(gameInstanceTable).column("total_win")
-                    .value(i).isGreaterThanOrEqualTo(0.0);
+                    .value(i).isGreaterThanOrEqualTo(0);
 
             // TODO find an elegant way to check for exact roll
             assertThat(gameInstanceTable).column("reel_rolls")
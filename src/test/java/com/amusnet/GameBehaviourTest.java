@@ -55,10 +55,29 @@ public class GameBehaviourTest {
             diceRolls = new int[]{15, 28, 0, 10, 19};
         }
 
+        @Test
+        void feedScreenGeneratorNumbers_cardCountsMatchScreen() {
+            Given5Size30ReelArraysAndGenerationNumbers15_28_0_10_19();
+            WhenGenerationNumbersAreFedToGenerator();
+            ThenCardCountsMatchScreenContents();
+        }
+
         private void WhenGenerationNumbersAreFedToGenerator() {
             rs.generateScreen(diceRolls);
         }
 
+        private void ThenCardCountsMatchScreenContents() {
+            int[][] screen = rs.fetchScreen();
+            for (int card = -1; card <= 8; card++) {
+                int expected = 0;
+                for (int[] row : screen)
+                    for (int c : row)
+                        if (c == card)
+                            ++expected;
+                assertThat(rs.getCardCount(card)).as("Count of card %d", card).isEqualTo(expected);
+            }
+        }
+
         private void ThenScreenGeneratesWithPredictedContents(List<List<Integer>> predictedContents) {
             var prediction = new ReelScreen(predictedContents);
             assertThat(rs).usingRecursiveComparison()
@@ -80,7 +99,7 @@ public class GameBehaviourTest {
         }
 
         private void GivenBetOn1LineForAmount1AndDiceRolls24_0_21_11_18() {
-            makeBet(1, 1.0);
+            makeBet(1, 1);
             diceRolls = new int[]{24, 0, 21, 11, 18};
         }
 
@@ -92,12 +111,12 @@ public class GameBehaviourTest {
         }
 
         private void GivenBetOn20LinesForAmount5AndDiceRolls22_18_17_0_29() {
-            makeBet(20, 5.0);
+            makeBet(20, 5);
             diceRolls = new int[]{22, 18, 17, 0, 29};
         }
 
         private void ThenShouldWin500FromScatters() {
-            assertWinAmounts(0.0, 500.0);
+            assertWinAmounts(0, 500);
         }
 
         @Test
@@ -108,7 +127,7 @@ public class GameBehaviourTest {
         }
 
         private void GivenBetOn10LinesForAmount5AndDiceRolls12_19_9_22_28() {
-            makeBet(10, 5.0);
+            makeBet(10, 5);
             diceRolls = new int[]{12, 19, 9, 22, 28};
         }
 
@@ -120,12 +139,12 @@ public class GameBehaviourTest {
         }
 
         private void GivenBetOn20LinesForAmount10AndDiceRolls5_2_19_13_0() {
-            makeBet(20, 10.0);
+            makeBet(20, 10);
             diceRolls = new int[]{5, 2, 19, 13, 0};
         }
 
         private void ThenShouldWin0Total() {
-            assertWinAmounts(0.0, 0.0);
+            assertWinAmounts(0, 0);
         }
 
         @Test
@@ -136,7 +155,7 @@ public class GameBehaviourTest {
         }
 
         private void GivenBetOn5LinesForAmount10AndDiceRolls15_3_15_22_25() {
-            makeBet(5, 10.0);
+            makeBet(5, 10);
             diceRolls = new int[]{15, 3, 15, 22, 25};
         }
 
@@ -148,12 +167,12 @@ public class GameBehaviourTest {
         }
 
         private void GivenBetOn5LinesForAmount10AndDiceRolls15_3_15_22_9() {
-            makeBet(5, 10.0);
+            makeBet(5, 10);
             diceRolls = new int[]{15, 3, 15, 22, 9};
         }
 
         private void ThenShouldWin5000FromLines() {
-            assertWinAmounts(5000.0, 0.0);
+            assertWinAmounts(5000, 0);
         }
 
         @Test
@@ -164,7 +183,7 @@ public class GameBehaviourTest {
         }
 
         private void GivenBetOn20LinesForAmount5AndDiceRolls23_16_7_19_13() {
-            makeBet(20, 5.0);
+            makeBet(20, 5);
             diceRolls = new int[]{23, 16, 7, 19, 13};
         }
 
@@ -173,14 +192,14 @@ public class GameBehaviourTest {
         }
 
         private void ThenShouldWin100FromLinesAnd500FromScatters() {
-            assertWinAmounts(100.0, 500.0);
+            assertWinAmounts(100, 500);
         }
 
         //
         // helper methods
         //
 
-        private void makeBet(int linesPlayed, double betAmount) {
+        private void makeBet(int linesPlayed, long betAmount) {
             game.setupNextRound(linesPlayed, betAmount, false);
             log.info("Lines {}; Bet per line {}", linesPlayed, betAmount);
         }
@@ -190,8 +209,8 @@ public class GameBehaviourTest {
             log.info(System.lineSeparator() + reelScreen.toString());
         }
 
-        private void assertWinAmounts(double fromLines, double fromScatters) {
-            double oldBalance = game.getGameState().getCurrentBalance();
+        private void assertWinAmounts(long fromLines, long fromScatters) {
+            long oldBalance = game.getGameState().getCurrentBalance();
             assertThat(game.playNextRound()).as("Total win amount")
                     .isEqualTo(fromLines + fromScatters);
             assertThat(game.getGameState().getGameRound().getWinFromLines()).as("Win from lines")
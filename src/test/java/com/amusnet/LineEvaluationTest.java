@@ -0,0 +1,103 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.game.components.LaneLineEvaluator;
+import com.amusnet.game.components.LineEvaluationStrategy;
+import com.amusnet.game.components.LineWin;
+import com.amusnet.game.components.ReelScreen;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LineEvaluationTest {
+
+    private static final int SPINS = 5_000;
+
+    private final GameConfig config = Game.CONFIGURATION;
+    private final ReelScreen rs = new ReelScreen(config);
+    private final GameRound scalarRound = new GameRound(config, rs);
+    private final GameRound round = new GameRound(config, rs);
+
+    @Test
+    void configurationFromXml_hasLineOutcomeTable() {
+        assertThat(config.getLineOutcomeTable()).isNotNull();
+        assertThat(config.getLineOutcomeTable().getBitsPerCard()).isEqualTo(3);
+        assertThat(round.getLineEvaluationStrategy()).isEqualTo(LineEvaluationStrategy.OUTCOME_TABLE);
+    }
+
+    @ParameterizedTest
+    @EnumSource(LineEvaluationStrategy.class)
+    void randomScreens_strategyGivesSameOutcomesAsCardByCardEvaluation(LineEvaluationStrategy strategy) {
+        assumeTrue(strategy != LineEvaluationStrategy.VECTOR || LaneLineEvaluator.isVectorApiAvailable(),
+                "Vector API evaluator needs the vector-api profile");
+        GivenBetOnAllLinesWithCardByCardEvaluationAnd(strategy);
+        WhenRandomScreensAreEvaluated_ThenOutcomesAreEqual();
+    }
+
+    @Test
+    void randomScreens_multipliersIndependentOfBet_winIsBetTimesMultiplier() {
+        scalarRound.setLinesPlayed(config.getLineCount());
+        scalarRound.setBetAmount(1);
+        round.setLinesPlayed(config.getLineCount());
+        round.setBetAmount(250);
+
+        Random rnd = new Random(11);
+        int[] diceRolls = new int[config.getScreenColumnCount()];
+        for (int spin = 0; spin < SPINS; spin++) {
+            for (int j = 0; j < diceRolls.length; j++)
+                diceRolls[j] = rnd.nextInt(config.getReels().get(j).size());
+            rs.generateScreen(diceRolls);
+
+            var unitResult = scalarRound.playRound();
+            long lineMultiplier = unitResult.getLineMultiplier(), scatterMultiplier = unitResult.getScatterMultiplier();
+            long totalMultiplier = unitResult.getTotalMultiplier();
+            assertThat(unitResult.getTotalWin()).as("Win for a bet of 1").isEqualTo(totalMultiplier);
+
+            var result = round.playRound();
+            assertThat(result.getLineMultiplier()).as("Line multiplier").isEqualTo(lineMultiplier);
+            assertThat(result.getScatterMultiplier()).as("Scatter multiplier").isEqualTo(scatterMultiplier);
+            assertThat(result.getWinFromLines()).as("Win from lines").isEqualTo(250 * lineMultiplier);
+            assertThat(result.getTotalWin()).as("Total win amount").isEqualTo(250 * totalMultiplier);
+        }
+    }
+
+    private void GivenBetOnAllLinesWithCardByCardEvaluationAnd(LineEvaluationStrategy strategy) {
+        scalarRound.setLineEvaluationStrategy(LineEvaluationStrategy.CARD_BY_CARD);
+        round.setLineEvaluationStrategy(strategy);
+        for (GameRound r : new GameRound[]{scalarRound, round}) {
+            r.setLinesPlayed(config.getLineCount());
+            r.setBetAmount(3);
+        }
+    }
+
+    private void WhenRandomScreensAreEvaluated_ThenOutcomesAreEqual() {
+        Random rnd = new Random(7);
+        int[] diceRolls = new int[config.getScreenColumnCount()];
+        for (int spin = 0; spin < SPINS; spin++) {
+            for (int j = 0; j < diceRolls.length; j++)
+                diceRolls[j] = rnd.nextInt(config.getReels().get(j).size());
+            rs.generateScreen(diceRolls);
+
+            assertThat(round.playRound().getTotalWin()).as("Total win amount")
+                    .isEqualTo(scalarRound.playRound().getTotalWin());
+            for (int i = 0; i < config.getLineCount(); i++)
+                assertLineWinsEqual(round.getRoundResult().getLineWin(i),
+                        scalarRound.getRoundResult().getLineWin(i));
+        }
+    }
+
+    private void assertLineWinsEqual(LineWin actual, LineWin expected) {
+        assertThat(actual.getCard()).as("Card").isEqualTo(expected.getCard());
+        assertThat(actual.getOccurrences()).as("Occurrences").isEqualTo(expected.getOccurrences());
+        assertThat(actual.getMultiplier()).as("Multiplier").isEqualTo(expected.getMultiplier());
+        assertThat(actual.getWin()).as("Win").isEqualTo(expected.getWin());
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.simulation.FullCycleEnumerator;
+import com.amusnet.simulation.MonteCarloSimulator;
+import com.amusnet.simulation.SimulationResult;
+import com.amusnet.simulation.WinTally;
+import com.amusnet.util.Distributions;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class MonteCarloSimulationTest {
+
+    private static final long SPINS = 3L * MonteCarloSimulator.BATCH_SIZE + 12_345;
+    private static final long SEED = 20220915L;
+
+    private final GameConfig config = RtpEnumerationTest.smallConfig();
+
+    @Test
+    void sameMasterSeed_sameResultWhateverTheThreadCount() {
+        WinTally oneThread = simulate(1, SEED);
+        WinTally threeThreads = simulate(3, SEED);
+
+        assertThat(oneThread.getSpins()).isEqualTo(SPINS);
+        assertThat(threeThreads).usingRecursiveComparison().isEqualTo(oneThread);
+    }
+
+    @Test
+    void differentMasterSeeds_differentResults() {
+        assertThat(simulate(2, SEED + 1)).usingRecursiveComparison().isNotEqualTo(simulate(2, SEED));
+    }
+
+    @Test
+    void simulatedRtpAndHitFrequency_closeToFullCycle() {
+        WinTally exact = new FullCycleEnumerator(config).enumerate(0, 20L * 21 * 22);
+        WinTally simulated = simulate(2, SEED);
+
+        assertThat(simulated.getRtp()).isCloseTo(exact.getRtp(), within(0.02));
+        assertThat(simulated.getHitFrequency()).isCloseTo(exact.getHitFrequency(), within(0.01));
+    }
+
+    @Test
+    void precisionReachedAfterFirstStep_stopsWithSameResultAsFixedSpins() {
+        var simulator = new MonteCarloSimulator(config, config.getLineCount(), 2);
+        simulator.setMinPrecisionSpins(0);
+        SimulationResult result = simulator.simulateToPrecision(0.05, 0.99, Long.MAX_VALUE, SEED);
+
+        long step = (long) MonteCarloSimulator.PRECISION_CHECK_BATCHES * MonteCarloSimulator.BATCH_SIZE;
+        assertThat(result.getTally().getSpins()).isEqualTo(step);
+        assertThat(result.getTally().getRtpHalfWidth(0.99)).isLessThanOrEqualTo(0.05);
+        assertThat(result.getTally()).usingRecursiveComparison()
+                .isEqualTo(simulator.simulate(step, SEED).getTally());
+    }
+
+    @Test
+    void precisionReachedBeforeMinimumSpins_playsOnToMinimum() {
+        long step = (long) MonteCarloSimulator.PRECISION_CHECK_BATCHES * MonteCarloSimulator.BATCH_SIZE;
+        var simulator = new MonteCarloSimulator(config, config.getLineCount(), 2);
+        simulator.setMinPrecisionSpins(2 * step + 1);
+        SimulationResult result = simulator.simulateToPrecision(0.05, 0.99, Long.MAX_VALUE, SEED);
+
+        assertThat(new MonteCarloSimulator(config).getMinPrecisionSpins())
+                .isEqualTo(MonteCarloSimulator.MIN_PRECISION_SPINS);
+        assertThat(result.getTally().getSpins()).as("First step at or past the minimum").isEqualTo(3 * step);
+        assertThat(result.getTally()).usingRecursiveComparison()
+                .isEqualTo(simulator.simulate(3 * step, SEED).getTally());
+    }
+
+    @Test
+    void precisionNotReached_stopsAtMaxSpins() {
+        long maxSpins = (long) (2.5 * MonteCarloSimulator.PRECISION_CHECK_BATCHES * MonteCarloSimulator.BATCH_SIZE);
+        SimulationResult result = new MonteCarloSimulator(config, config.getLineCount(), 3)
+                .simulateToPrecision(1e-6, 0.99, maxSpins, SEED);
+
+        assertThat(result.getTally().getSpins()).isEqualTo(maxSpins);
+        assertThat(result.getTally().getRtpHalfWidth(0.99)).isGreaterThan(1e-6);
+        assertThat(result.getTally()).usingRecursiveComparison().isEqualTo(simulate(1, SEED, maxSpins));
+    }
+
+    @Test
+    void normalQuantiles_matchTables() {
+        assertThat(Distributions.normalQuantile(0.5)).isZero();
+        assertThat(Distributions.normalQuantile(0.975)).isCloseTo(1.959963985, within(1e-9));
+        assertThat(Distributions.normalQuantile(0.995)).isCloseTo(2.575829304, within(1e-9));
+        assertThat(Distributions.normalQuantile(1e-10)).isCloseTo(-6.361340902, within(1e-9));
+    }
+
+    private WinTally simulate(int threads, long seed, long spins) {
+        return new MonteCarloSimulator(config, config.getLineCount(), threads).simulate(spins, seed).getTally();
+    }
+
+    private WinTally simulate(int threads, long seed) {
+        return simulate(threads, seed, SPINS);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.config.ReelWindows;
+import com.amusnet.exception.ConfigurationInitializationException;
+import com.amusnet.game.components.ReelScreen;
+import com.amusnet.rng.RngSource;
+import com.amusnet.simulation.FullCycleEnumerator;
+import com.amusnet.util.ErrorMessages;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReelLengthsTest {
+
+    private static final Path XML_CONFIG = Path.of("src/main/resources/properties.xml");
+    private static final Path XSD_VALIDATION = Path.of("src/main/resources/properties.xsd");
+    private static final Path VARIED_XML_CONFIG = Path.of("target/generated-test-sources/varied-properties.xml");
+
+    private static final int[] REEL_LENGTHS = {3, 20, 45, 90, 120};
+
+    @AfterEach
+    void deleteConfigFile() throws IOException {
+        Files.deleteIfExists(VARIED_XML_CONFIG);
+    }
+
+    @Test
+    void configurationXmlWithReelsOf3To120Stops_isAcceptedWithTheRightCycleSize() throws Exception {
+        GameConfig config = loadConfig(REEL_LENGTHS);
+        ReelWindows reelWindows = config.getReelWindows();
+
+        long cycleSize = 1;
+        for (int i = 0; i < REEL_LENGTHS.length; i++) {
+            assertThat(reelWindows.getReelLength(i)).isEqualTo(REEL_LENGTHS[i]);
+            assertThat(config.getStopSampler().getReelLength(i)).isEqualTo(REEL_LENGTHS[i]);
+
+            int reel = i;
+            int symbols = IntStream.range(0, 8).map(card -> reelWindows.symbolCount(reel, card)).sum();
+            assertThat(symbols).as("Symbols on reel %d", i).isEqualTo(REEL_LENGTHS[i]);
+            assertThat(reelWindows.symbolCount(i, 0))
+                    .isEqualTo((int) config.getReels().get(i).stream().filter(card -> card == 0).count());
+            cycleSize *= REEL_LENGTHS[i];
+        }
+        assertThat(config.getCycleSize()).isEqualTo(cycleSize);
+        assertThat(new FullCycleEnumerator(config).getCycleSize()).isEqualTo(cycleSize);
+    }
+
+    @Test
+    void generatedScreens_reachEveryStopOfEveryReelAndNoOther() throws Exception {
+        GameConfig config = loadConfig(REEL_LENGTHS);
+        ReelScreen reelScreen = new ReelScreen(config, RngSource.splittable(2022));
+
+        boolean[][] reached = new boolean[REEL_LENGTHS.length][];
+        for (int i = 0; i < REEL_LENGTHS.length; i++)
+            reached[i] = new boolean[REEL_LENGTHS[i]];
+        for (int round = 0; round < 20_000; round++) {
+            int[] diceRolls = reelScreen.generateScreen().getDiceRolls();
+            for (int i = 0; i < REEL_LENGTHS.length; i++)
+                reached[i][diceRolls[i]] = true;    // out of bounds if a stop is past the reel's end
+        }
+
+        for (int i = 0; i < REEL_LENGTHS.length; i++)
+            for (int stop = 0; stop < REEL_LENGTHS[i]; stop++)
+                assertThat(reached[i][stop]).as("Stop %d of reel %d reached", stop, i).isTrue();
+    }
+
+    @Test
+    void configurationXmlWithEmptyReel_isRejected() {
+        assertThatThrownBy(() -> loadConfig(new int[]{30, 30, 0, 30, 30}))
+                .isInstanceOf(ConfigurationInitializationException.class)
+                .hasMessage(ErrorMessages.getInstance().message(ErrorMessages.DefaultMessageTitles.TITLE_EMSG_EMPTY_REEL_ARRAY));
+    }
+
+    /**
+     * Loads the game's configuration with its reel arrays replaced by reels of the given lengths,
+     * holding all cards of the multipliers table.
+     */
+    private static GameConfig loadConfig(int[] reelLengths) throws Exception {
+        String reelArrays = IntStream.range(0, reelLengths.length)
+                .mapToObj(reel -> IntStream.range(0, reelLengths[reel])
+                        .mapToObj(stop -> String.valueOf((stop * 3 + reel) % 8))
+                        .collect(Collectors.joining(",", "<reelArray>", "</reelArray>")))
+                .collect(Collectors.joining(System.lineSeparator(), "<reelArrays>", "</reelArrays>"));
+        String xml = Files.readString(XML_CONFIG).replaceFirst("(?s)<reelArrays>.*</reelArrays>", reelArrays);
+
+        Files.createDirectories(VARIED_XML_CONFIG.getParent());
+        Files.writeString(VARIED_XML_CONFIG, xml);
+        return new GameConfig(VARIED_XML_CONFIG, XSD_VALIDATION);
+    }
+
+}
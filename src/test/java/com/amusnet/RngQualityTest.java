@@ -0,0 +1,82 @@
+package com.amusnet;
+
+import com.amusnet.game.Game;
+import com.amusnet.rng.RngSource;
+import com.amusnet.rng.StopSampler;
+import com.amusnet.simulation.RngQualityBattery;
+import com.amusnet.simulation.RngQualityReport;
+import com.amusnet.util.Distributions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class RngQualityTest {
+
+    private static final long SPINS = 200_000;
+
+    private final StopSampler sampler = Game.CONFIGURATION.getStopSampler();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SplittableRandom", "L64X128MixRandom", "Counter"})
+    void goodSource_passesAllTests(String algorithm) {
+        RngQualityReport report = new RngQualityBattery(sampler, 2).run(RngSource.of(algorithm, 1234), SPINS);
+
+        assertThat(report.getSpins()).isEqualTo(SPINS);
+        assertThat(report.getResults()).hasSize(4 * sampler.getReelCount());
+        assertThat(report.getMinPValue()).as(report.toString()).isGreaterThan(1e-4);
+    }
+
+    @Test
+    void weightedReels_testedAgainstTheirWeights() {
+        StopSampler weighted = WeightedReelsTest.weightedConfig().getStopSampler();
+        RngQualityReport report = new RngQualityBattery(weighted, 2).run(RngSource.splittable(99), SPINS);
+
+        assertThat(report.getMinPValue()).as(report.toString()).isGreaterThan(1e-4);
+    }
+
+    @Test
+    void sequentialSource_uniformButFailsIndependenceTests() {
+        RngQualityReport report = new RngQualityBattery(StopSampler.uniform(30), 1).run(new SequentialSource(), SPINS);
+
+        assertThat(report.getResults()).filteredOn(r -> r.getTest().equals("Chi-square"))
+                .allMatch(r -> r.getPValue() > 0.5);
+        assertThat(report.getResults()).filteredOn(r -> !r.getTest().equals("Chi-square"))
+                .allMatch(r -> r.getPValue() < 1e-9);
+    }
+
+    @Test
+    void pValues_matchTablesOfTheDistributions() {
+        assertThat(Distributions.chiSquareSurvival(3.841459, 1)).isCloseTo(0.05, within(1e-6));
+        assertThat(Distributions.chiSquareSurvival(18.307038, 10)).isCloseTo(0.05, within(1e-6));
+        assertThat(Distributions.chiSquareSurvival(29.0, 29)).isCloseTo(0.465066, within(1e-6));
+        assertThat(Distributions.normalTwoSided(1.959964)).isCloseTo(0.05, within(1e-6));
+        assertThat(Distributions.normalTwoSided(-3.0)).isCloseTo(0.0026998, within(1e-7));
+    }
+
+    /**
+     * Draws 0, 1, 2, ... modulo the bound: perfectly uniform, but not independent at all.
+     */
+    private static class SequentialSource implements RngSource {
+
+        private long next;
+
+        @Override
+        public int nextInt(int bound) {
+            return (int) (next++ % bound);
+        }
+
+        @Override
+        public long nextLong(long bound) {
+            return next++ % bound;
+        }
+
+        @Override
+        public RngSource split() {
+            return new SequentialSource();
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.ReelScreen;
+import com.amusnet.rng.RngSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RngSourceTest {
+
+    private static final int DRAWS = 1000;
+
+    private final GameConfig config = Game.CONFIGURATION;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SplittableRandom", "L64X128MixRandom", "Xoshiro256PlusPlus", "Counter"})
+    void seededSource_sameSeedDrawsSameNumbers_splitSourceDrawsOthers(String algorithm) {
+        long[] first = draw(RngSource.of(algorithm, 42));
+        long[] second = draw(RngSource.of(algorithm, 42));
+
+        RngSource parent = RngSource.of(algorithm, 42);
+        long[] child = draw(parent.split());
+
+        assertThat(second).isEqualTo(first);
+        assertThat(child).isNotEqualTo(draw(parent));
+        assertThat(Arrays.stream(first).allMatch(n -> n >= 0 && n < 30)).isTrue();
+    }
+
+    @Test
+    void threadLocalSource_drawsWithinBounds() {
+        long[] numbers = draw(RngSource.threadLocal());
+        assertThat(Arrays.stream(numbers).allMatch(n -> n >= 0 && n < 30)).isTrue();
+        assertThat(RngSource.threadLocal().split()).isSameAs(RngSource.threadLocal());
+    }
+
+    @Test
+    void unknownAlgorithm_isRejected() {
+        assertThatThrownBy(() -> RngSource.of("NoSuchRandom", 42)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void screensWithSameSeed_generateSameScreens() {
+        ReelScreen first = new ReelScreen(config, RngSource.splittable(7));
+        ReelScreen second = new ReelScreen(config, RngSource.splittable(7));
+        for (int i = 0; i < DRAWS; i++)
+            assertThat(second.generateScreen().toString()).isEqualTo(first.generateScreen().toString());
+    }
+
+    private static long[] draw(RngSource rng) {
+        long[] numbers = new long[DRAWS];
+        for (int i = 0; i < DRAWS; i++)
+            numbers[i] = i % 2 == 0 ? rng.nextInt(30) : rng.nextLong(30);
+        return numbers;
+    }
+
+}
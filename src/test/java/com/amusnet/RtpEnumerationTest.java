@@ -0,0 +1,119 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.simulation.FullCycleEnumerator;
+import com.amusnet.simulation.WinTally;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RtpEnumerationTest {
+
+    private final GameConfig config = smallConfig();
+    private final FullCycleEnumerator enumerator = new FullCycleEnumerator(config);
+
+    @Test
+    void smallConfiguration_cycleSizeIsProductOfReelLengths() {
+        assertThat(enumerator.getCycleSize()).isEqualTo(20L * 21 * 22);
+    }
+
+    @Test
+    void smallConfiguration_enumerationMatchesPlayingEveryCombination() {
+        WinTally tally = enumerator.enumerate(new ForkJoinPool(3));
+
+        var gameRound = new GameRound(config);
+        gameRound.setLinesPlayed(config.getLineCount());
+        gameRound.setBetAmount(1);
+        long spins = 0, hits = 0;
+        long totalWin = 0;
+        var reels = config.getReels();
+        for (int a = 0; a < reels.get(0).size(); a++)
+            for (int b = 0; b < reels.get(1).size(); b++)
+                for (int c = 0; c < reels.get(2).size(); c++) {
+                    gameRound.getReelScreen().generateScreen(new int[]{a, b, c});
+                    long win = gameRound.playRound().getTotalWin();
+                    ++spins;
+                    hits += win > 0 ? 1 : 0;
+                    totalWin += win;
+                }
+
+        assertThat(tally.getSpins()).isEqualTo(spins);
+        assertThat(tally.getHits()).isEqualTo(hits);
+        assertThat(tally.getTotalWin()).isEqualTo(totalWin);
+        assertThat(tally.getTotalBet()).isEqualTo(spins * config.getLineCount());
+        assertThat(tally.getWinFromScatters()).isPositive();
+
+        long linesSum = 0, cardsSum = 0;
+        for (int i = 0; i < tally.getLinesPlayed(); i++)
+            linesSum += tally.getLineWin(i);
+        for (int card = 0; card < config.getPayTable().getCardIndexCount(); card++)
+            cardsSum += tally.getCardWin(card);
+        assertThat(linesSum).as("Sum of line wins").isEqualTo(tally.getWinFromLines());
+        assertThat(cardsSum).as("Sum of card wins").isEqualTo(tally.getTotalWin());
+    }
+
+    @Test
+    void smallConfiguration_oneEnumerationGivesRtpOfEveryLineCount() {
+        WinTally allLines = enumerator.enumerate(new ForkJoinPool(3));
+
+        for (int lines = 1; lines <= config.getLineCount(); lines++) {
+            WinTally tally = new FullCycleEnumerator(config, lines).enumerate(new ForkJoinPool(3));
+            assertThat(allLines.getTotalWin(lines)).as("Total win for %d lines", lines).isEqualTo(tally.getTotalWin());
+            assertThat(allLines.getHits(lines)).as("Hits for %d lines", lines).isEqualTo(tally.getHits());
+            assertThat(allLines.getRtp(lines)).as("RTP for %d lines", lines).isEqualTo(tally.getRtp());
+        }
+        assertThat(allLines.getTotalWin(config.getLineCount())).isEqualTo(allLines.getTotalWin());
+    }
+
+    @Test
+    void smallConfiguration_enumerationDoesNotDependOnThreadCount() {
+        WinTally sequential = enumerator.enumerate(0, enumerator.getCycleSize());
+        WinTally parallel = enumerator.enumerate(new ForkJoinPool(4));
+
+        assertThat(parallel).usingRecursiveComparison().isEqualTo(sequential);
+    }
+
+    /**
+     * 3x3 screen with 3 lines, reels of different lengths, wildcard 4 and scatter 5.
+     */
+    static GameConfig smallConfig() {
+        var config = new GameConfig();
+        config.setScreenRowCount(3);
+        config.setScreenColumnCount(3);
+        config.setLineCount(3);
+        config.setReels(List.of(
+                List.of(0,0,1,1,2,2,3,3,4,5,0,1,2,3,0,1,2,0,1,3),
+                List.of(0,1,1,2,2,3,3,4,0,0,5,1,2,3,0,1,2,0,1,3,2),
+                List.of(0,0,1,2,2,3,3,4,4,5,0,1,2,3,0,1,2,0,1,3,1,2)
+        ));
+        config.setLines(List.of(
+                List.of(1, 1, 1),
+                List.of(0, 0, 0),
+                List.of(2, 1, 0)
+        ));
+        var occurrenceCounts = Stream.of(2, 3).collect(Collectors.toCollection(LinkedHashSet::new));
+        config.setupTable(occurrenceCounts, Map.of(
+                0, Map.of(3, 5),
+                1, Map.of(3, 10),
+                2, Map.of(3, 15),
+                3, Map.of(2, 2, 3, 20),
+                4, Map.of(2, 5, 3, 50),
+                5, Map.of(2, 2, 3, 10)
+        ));
+        config.getTable().setMinStreakCount(2);
+        config.getTable().setMaxStreakCount(3);
+        config.setScatters(Set.of(5));
+        config.setWildcard(4);
+        return config;
+    }
+
+}
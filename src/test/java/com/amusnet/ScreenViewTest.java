@@ -0,0 +1,78 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.ReelScreen;
+import com.amusnet.game.components.ScreenView;
+import com.amusnet.rng.RngSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ScreenViewTest {
+
+    private final GameConfig config = Game.CONFIGURATION;
+    private final ReelScreen rs = new ReelScreen(config, RngSource.splittable(3));
+
+    @Test
+    void viewOfGeneratedScreen_resolvesSameCardsAsScreen() {
+        for (int round = 0; round < 1000; round++) {
+            ScreenView view = rs.generateScreen().getView();
+
+            assertThat(view.toGrid()).isEqualTo(rs.fetchScreen());
+            assertThat(view.toString()).isEqualTo(rs.toString());
+            for (int i = 0; i < view.getRowCount(); i++)
+                for (int j = 0; j < view.getColumnCount(); j++)
+                    assertThat(view.getCardAt(i, j)).isEqualTo(rs.getCardAt(i, j));
+        }
+    }
+
+    @Test
+    void keptView_isNotChangedByLaterRounds() {
+        ScreenView view = rs.generateScreen().getView();
+        String screen = rs.toString();
+        int[] stops = rs.getDiceRolls().clone();
+
+        rs.generateScreen();
+        rs.generateScreen();
+
+        assertThat(view.toString()).isEqualTo(screen);
+        assertThat(view).isEqualTo(ScreenView.of(config.getReelWindows(), stops));
+        assertThat(rs.generateScreen(view).toString()).isEqualTo(screen);
+    }
+
+    @Test
+    void screenFromList_holdsSameCardsAndCounts() {
+        var rows = List.of(List.of(1, 2, 2, 4, 0), List.of(3, 2, 1, 0, 0), List.of(4, 4, 2, 1, 0));
+        ReelScreen screen = new ReelScreen(rows);
+
+        assertThat(screen.fetchScreen()).isEqualTo(new int[][]{{1, 2, 2, 4, 0}, {3, 2, 1, 0, 0}, {4, 4, 2, 1, 0}});
+        assertThat(screen.getCardCount(0)).isEqualTo(4);
+        assertThat(screen.getCardCount(2)).isEqualTo(4);
+        assertThat(screen.getCardCount(5)).isZero();
+        assertThatThrownBy(screen::getView).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void invalidStops_areRejected() {
+        var windows = config.getReelWindows();
+        assertThatThrownBy(() -> ScreenView.of(windows, new int[]{0, 0, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ScreenView.of(windows, new int[]{0, 0, 0, 0, 30}))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void rowOutOfScreen_isRejected() {
+        rs.generateScreen();
+
+        assertThatThrownBy(() -> rs.getCardAt(rs.getRowCount(), 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> rs.getCardAt(-1, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> rs.getView().getCardAt(rs.getRowCount(), 0))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+}
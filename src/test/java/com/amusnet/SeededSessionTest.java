@@ -0,0 +1,96 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.rng.RngSource;
+import com.amusnet.rng.SeededSession;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SeededSessionTest {
+
+    private static final long SEED = 0x5eed_2022L;
+    private static final int ROUNDS = 2000;
+
+    private final GameConfig config = Game.CONFIGURATION;
+
+    @Test
+    void anySpinOfSession_reconstructedWithoutPlayingTheSpinsBeforeIt() {
+        var session = new SeededSession(SEED, config.getStopSampler());
+        List<int[]> played = new ArrayList<>();
+        for (int spin = 0; spin < ROUNDS; spin++) {
+            int[] stops = new int[config.getScreenColumnCount()];
+            assertThat(session.next(stops)).isEqualTo(spin);
+            played.add(stops);
+        }
+
+        var audit = new SeededSession(SEED, config.getStopSampler());
+        int[] stops = new int[config.getScreenColumnCount()];
+        for (int spin = ROUNDS - 1; spin >= 0; spin -= 7) {
+            audit.stopsOf(spin, stops);
+            assertThat(stops).as("Stops of spin %d", spin).isEqualTo(played.get(spin));
+        }
+        assertThat(audit.getNextSpin()).isZero();
+    }
+
+    @Test
+    void differentSeedsOrSpins_differentStops() {
+        var session = new SeededSession(SEED, config.getStopSampler());
+        var other = new SeededSession(SEED + 1, config.getStopSampler());
+        int[] first = new int[config.getScreenColumnCount()], second = new int[first.length];
+
+        int sameStops = 0, sameAsNextSpin = 0;
+        for (long spin = 1_000_000_000L; spin < 1_000_000_000L + ROUNDS; spin++) {
+            session.stopsOf(spin, first);
+            other.stopsOf(spin, second);
+            sameStops += Arrays.equals(first, second) ? 1 : 0;
+            session.stopsOf(spin + 1, second);
+            sameAsNextSpin += Arrays.equals(first, second) ? 1 : 0;
+        }
+
+        assertThat(sameStops).isLessThan(3);
+        assertThat(sameAsNextSpin).isLessThan(3);
+    }
+
+    @Test
+    void seededGame_roundsReplayedFromSeedAlone() {
+        Game game = new Game().setSeed(SEED);
+        List<String> screens = new ArrayList<>();
+        List<Long> wins = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            screens.add(game.setupNextRound(config.getLineCount(), 1, true).toString());
+            wins.add(game.playNextRound());
+        }
+
+        var replay = new GameRound(config);
+        replay.setLinesPlayed(config.getLineCount());
+        replay.setBetAmount(1);
+        var audit = new SeededSession(SEED, config.getStopSampler());
+        int[] stops = new int[config.getScreenColumnCount()];
+        for (int round = ROUNDS - 1; round >= 0; round -= 13) {
+            audit.stopsOf(round, stops);
+            replay.getReelScreen().generateScreen(stops);
+            assertThat(replay.getReelScreen().toString()).as("Screen of round %d", round).isEqualTo(screens.get(round));
+            assertThat(replay.playRound().getTotalWin()).as("Win of round %d", round).isEqualTo(wins.get(round));
+        }
+    }
+
+    @Test
+    void counterSource_drawsWithinBoundsAndUniformly() {
+        RngSource rng = RngSource.of("Counter", SEED);
+        int[] counts = new int[7];
+        for (int i = 0; i < 70_000; i++)
+            ++counts[rng.nextInt(7)];
+        for (int count : counts)
+            assertThat(count).isBetween(9_500, 10_500);
+        for (int i = 0; i < 10_000; i++)
+            assertThat(rng.nextLong(1L << 40 | 3)).isBetween(0L, 1L << 40 | 2);
+    }
+
+}
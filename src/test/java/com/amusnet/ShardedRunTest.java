@@ -0,0 +1,86 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.simulation.FullCycleEnumerator;
+import com.amusnet.simulation.MonteCarloSimulator;
+import com.amusnet.simulation.ShardedRun;
+import com.amusnet.simulation.SimulationResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ShardedRunTest {
+
+    private static final long SPINS = 5L * MonteCarloSimulator.BATCH_SIZE + 123;
+    private static final long SEED = 4242L;
+
+    private final GameConfig config = RtpEnumerationTest.smallConfig();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void simulationShards_mergeToSingleProcessSimulation() throws IOException {
+        var run = new ShardedRun(config, directory, 3);
+        for (int shard = 2; shard >= 0; shard--)
+            run.simulateShard(shard, SPINS, SEED, 1);
+
+        ShardedRun.MergedShards merged = ShardedRun.merge(directory);
+        SimulationResult single = new MonteCarloSimulator(config, config.getLineCount(), 2).simulate(SPINS, SEED);
+
+        assertThat(merged.isSimulation()).isTrue();
+        assertThat(merged.getTally()).usingRecursiveComparison().isEqualTo(single.getTally());
+    }
+
+    @Test
+    void moreShardsThanBatches_emptyShardsMergeToo() throws IOException {
+        long spins = MonteCarloSimulator.BATCH_SIZE + 7;
+        var run = new ShardedRun(config, directory, 5);
+        for (int shard = 0; shard < 5; shard++)
+            run.simulateShard(shard, spins, SEED, 1);
+
+        assertThat(ShardedRun.merge(directory).getTally()).usingRecursiveComparison()
+                .isEqualTo(new MonteCarloSimulator(config, config.getLineCount(), 1).simulate(spins, SEED).getTally());
+    }
+
+    @Test
+    void enumerationShards_mergeToFullCycle() throws IOException {
+        var run = new ShardedRun(config, directory, 4);
+        for (int shard = 0; shard < 4; shard++)
+            run.enumerateShard(shard, new ForkJoinPool(2));
+
+        ShardedRun.MergedShards merged = ShardedRun.merge(directory);
+
+        assertThat(merged.isSimulation()).isFalse();
+        assertThat(merged.getTally()).usingRecursiveComparison()
+                .isEqualTo(new FullCycleEnumerator(config).enumerate(new ForkJoinPool(3)));
+    }
+
+    @Test
+    void missingShard_throws() throws IOException {
+        var run = new ShardedRun(config, directory, 3);
+        run.enumerateShard(0, new ForkJoinPool(1));
+        run.enumerateShard(2, new ForkJoinPool(1));
+
+        assertThatThrownBy(() -> ShardedRun.merge(directory))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Missing shards [1]");
+    }
+
+    @Test
+    void shardsOfDifferentJobs_throw() throws IOException {
+        new ShardedRun(config, directory, 2).simulateShard(0, SPINS, SEED, 1);
+        Files.move(new ShardedRun(config, directory, 2).simulateShard(1, SPINS, SEED + 1, 1),
+                directory.resolve("other.shard"));
+
+        assertThatThrownBy(() -> ShardedRun.merge(directory))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("different jobs");
+    }
+
+}
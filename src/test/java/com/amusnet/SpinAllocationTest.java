@@ -0,0 +1,76 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.game.components.ReelScreen;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpinAllocationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SpinAllocationTest.class);
+
+    private static final int WARMUP_SPINS = 200_000;
+    private static final int MEASURED_SPINS = 100_000;
+    private static final int DISTINCT_SCREENS = 1024;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final GameConfig config = Game.CONFIGURATION;
+    private final GameRound gameRound = new GameRound(config);
+    private final ReelScreen rs = gameRound.getReelScreen();
+    private final int[][] diceRolls = new int[DISTINCT_SCREENS][];
+
+    private long totalWin;
+    private long allocatedBytes;
+
+    @Test
+    void warmedUpSpinPath_allocatesNothingPerSpin() {
+        GivenBetOnAllLinesForAmount1AndRandomDiceRolls();
+        WhenSpinPathIsWarmedUpAndMeasured();
+        ThenLessThanOneByteIsAllocatedPerSpin();
+    }
+
+    private void GivenBetOnAllLinesForAmount1AndRandomDiceRolls() {
+        gameRound.setLinesPlayed(config.getLineCount());
+        gameRound.setBetAmount(1);
+
+        Random rnd = new Random(42);
+        for (int i = 0; i < DISTINCT_SCREENS; i++) {
+            diceRolls[i] = new int[config.getScreenColumnCount()];
+            for (int j = 0; j < diceRolls[i].length; j++)
+                diceRolls[i][j] = rnd.nextInt(config.getReels().get(j).size());
+        }
+    }
+
+    private void WhenSpinPathIsWarmedUpAndMeasured() {
+        spin(WARMUP_SPINS);
+
+        long before = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        spin(MEASURED_SPINS);
+        allocatedBytes = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - before;
+
+        log.info("{} bytes allocated over {} spins (total win {})", allocatedBytes, MEASURED_SPINS, totalWin);
+    }
+
+    private void ThenLessThanOneByteIsAllocatedPerSpin() {
+        assertThat(totalWin).as("Total win amount").isPositive();
+        assertThat(allocatedBytes).as("Bytes allocated by spin path").isLessThan(MEASURED_SPINS);
+    }
+
+    private void spin(int spins) {
+        for (int i = 0; i < spins; i++) {
+            rs.generateScreen(diceRolls[i % DISTINCT_SCREENS]);
+            totalWin += gameRound.playRound().getTotalWin();
+        }
+    }
+
+}
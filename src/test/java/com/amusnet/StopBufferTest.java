@@ -0,0 +1,79 @@
+package com.amusnet;
+
+import com.amusnet.game.Game;
+import com.amusnet.game.components.ReelScreen;
+import com.amusnet.rng.RngSource;
+import com.amusnet.rng.StopBuffer;
+import com.amusnet.rng.StopSampler;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StopBufferTest {
+
+    private static final int[] REEL_LENGTHS = {30, 7, 12, 1, 25};
+    private static final int SETS = 20_000;
+
+    @Test
+    void bufferedStops_sameAsDrawingFromSourceDirectly() {
+        RngSource direct = RngSource.splittable(99);
+        int[] stops = new int[REEL_LENGTHS.length];
+
+        try (var buffer = new StopBuffer(RngSource.splittable(99), StopSampler.uniform(REEL_LENGTHS), 16, 4)) {
+            for (int set = 0; set < SETS; set++) {
+                buffer.next(stops);
+                for (int i = 0; i < REEL_LENGTHS.length; i++)
+                    assertThat(stops[i]).as("Stop %d of set %d", i, set).isEqualTo(direct.nextInt(REEL_LENGTHS[i]));
+            }
+        }
+    }
+
+    @Test
+    void closedBuffer_givesRemainingStopsThenFails() {
+        var buffer = new StopBuffer(RngSource.splittable(1), StopSampler.uniform(REEL_LENGTHS), 8, 0);
+        buffer.close();
+
+        int[] stops = new int[REEL_LENGTHS.length];
+        int taken = 0;
+        while (buffer.size() > 0) {
+            buffer.next(stops);
+            ++taken;
+        }
+
+        assertThat(taken).isEqualTo(8);
+        assertThatThrownBy(() -> buffer.next(stops)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void invalidLowWaterMark_isRejected() {
+        assertThatThrownBy(() -> new StopBuffer(RngSource.splittable(1), StopSampler.uniform(REEL_LENGTHS), 8, 8))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void gameWithStopBuffering_generatesSameScreensAsWithout() {
+        Game buffered = new Game(), unbuffered = new Game();
+        ReelScreen bufferedScreen = buffered.getGameState().getGameRound().getReelScreen();
+        ReelScreen unbufferedScreen = unbuffered.getGameState().getGameRound().getReelScreen();
+        bufferedScreen.setRngSource(RngSource.splittable(5));
+        unbufferedScreen.setRngSource(RngSource.splittable(5));
+        buffered.setStopBuffering(32);
+
+        for (int round = 0; round < 1000; round++)
+            assertThat(buffered.setupNextRound(1, 1, true).toString())
+                    .isEqualTo(unbuffered.setupNextRound(1, 1, true).toString());
+
+        buffered.setStopBuffering(8);
+        for (int round = 0; round < 100; round++)
+            assertThat(buffered.setupNextRound(1, 1, true).toString()).as("Round %d after resizing", round)
+                    .isEqualTo(unbuffered.setupNextRound(1, 1, true).toString());
+
+        buffered.setStopBuffering(0);
+        assertThat(bufferedScreen.getStopBuffer()).isNull();
+        for (int round = 0; round < 100; round++)
+            assertThat(buffered.setupNextRound(1, 1, true).toString()).as("Round %d without buffer", round)
+                    .isEqualTo(unbuffered.setupNextRound(1, 1, true).toString());
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.rng.AliasTable;
+import com.amusnet.rng.RngSource;
+import com.amusnet.rng.StopSampler;
+import com.amusnet.simulation.FullCycleEnumerator;
+import com.amusnet.simulation.MonteCarloSimulator;
+import com.amusnet.simulation.WinTally;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class WeightedReelsTest {
+
+    private static final Path XML_CONFIG = Path.of("src/main/resources/properties.xml");
+    private static final Path XSD_VALIDATION = Path.of("src/main/resources/properties.xsd");
+    private static final Path WEIGHTED_XML_CONFIG = Path.of("target/generated-test-sources/weighted-properties.xml");
+
+    private final GameConfig config = weightedConfig();
+
+    @Test
+    void aliasTable_everyOutcomeTakesUpExactlyItsShareOfTheColumns() {
+        long[] weights = {0, 3, 1, 7, 2, 5, 0, 9};
+        AliasTable table = AliasTable.of(weights);
+        long totalWeight = Arrays.stream(weights).sum();
+
+        long[] found = new long[weights.length];
+        for (int column = 0; column < weights.length; column++)
+            for (long height = 0; height < totalWeight; height++)
+                ++found[table.sample(column, height)];
+
+        for (int i = 0; i < weights.length; i++)
+            assertThat(found[i]).as("Heights of outcome %d", i).isEqualTo(weights.length * weights[i]);
+    }
+
+    @Test
+    void uniformAliasTable_drawsSameAsNextInt() {
+        AliasTable table = AliasTable.uniform(30);
+        RngSource sampled = RngSource.splittable(7), direct = RngSource.splittable(7);
+
+        for (int i = 0; i < 10_000; i++)
+            assertThat(table.sample(sampled)).isEqualTo(direct.nextInt(30));
+    }
+
+    @Test
+    void invalidWeights_areRejected() {
+        assertThatThrownBy(() -> AliasTable.of(new long[]{0, 0})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AliasTable.of(new long[]{1, -1})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AliasTable.of(new long[]{Long.MAX_VALUE / 2, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void weightedEnumeration_matchesPlayingEveryCombinationWithItsWeight() {
+        var enumerator = new FullCycleEnumerator(config);
+        WinTally tally = enumerator.enumerate(new ForkJoinPool(3));
+
+        StopSampler sampler = config.getStopSampler();
+        var gameRound = new GameRound(config);
+        gameRound.setLinesPlayed(config.getLineCount());
+        gameRound.setBetAmount(1);
+        long spins = 0, hits = 0, totalWin = 0;
+        for (int a = 0; a < sampler.getReelLength(0); a++)
+            for (int b = 0; b < sampler.getReelLength(1); b++)
+                for (int c = 0; c < sampler.getReelLength(2); c++) {
+                    long weight = sampler.getWeight(0, a) * sampler.getWeight(1, b) * sampler.getWeight(2, c);
+                    gameRound.getReelScreen().generateScreen(new int[]{a, b, c});
+                    long win = gameRound.playRound().getTotalWin();
+                    spins += weight;
+                    hits += win > 0 ? weight : 0;
+                    totalWin += win * weight;
+                }
+
+        assertThat(enumerator.getCycleWeight()).isEqualTo(spins).isGreaterThan(enumerator.getCycleSize());
+        assertThat(tally.getSpins()).isEqualTo(spins);
+        assertThat(tally.getHits()).isEqualTo(hits);
+        assertThat(tally.getTotalWin()).isEqualTo(totalWin);
+        assertThat(tally.getRtp())
+                .isNotEqualTo(new FullCycleEnumerator(RtpEnumerationTest.smallConfig()).enumerate().getRtp());
+    }
+
+    @Test
+    void weightedSimulation_closeToWeightedFullCycle() {
+        WinTally exact = new FullCycleEnumerator(config).enumerate();
+        WinTally simulated = new MonteCarloSimulator(config, config.getLineCount(), 2)
+                .simulate(4L * MonteCarloSimulator.BATCH_SIZE, 11).getTally();
+
+        assertThat(simulated.getRtp()).isCloseTo(exact.getRtp(), within(0.02));
+        assertThat(simulated.getHitFrequency()).isCloseTo(exact.getHitFrequency(), within(0.01));
+    }
+
+    @Test
+    void configurationXmlWithReelWeights_isValidAndSamplesByWeight() throws Exception {
+        String xml = Files.readString(XML_CONFIG).replaceFirst("<reelArray>",
+                "<reelArray weights=\"" + String.join(",", Collections.nCopies(29, "1")) + ",61\">");
+        Files.createDirectories(WEIGHTED_XML_CONFIG.getParent());
+        Files.writeString(WEIGHTED_XML_CONFIG, xml);
+        try {
+            GameConfig weighted = new GameConfig(WEIGHTED_XML_CONFIG, XSD_VALIDATION);
+
+            StopSampler sampler = weighted.getStopSampler();
+            assertThat(sampler.isWeighted()).isTrue();
+            assertThat(sampler.getTotalWeight(0)).isEqualTo(90);
+            assertThat(sampler.getTotalWeight(1)).isEqualTo(30);
+
+            RngSource rng = RngSource.splittable(3);
+            int[] stops = new int[sampler.getReelCount()];
+            int lastStops = 0, draws = 90_000;
+            for (int i = 0; i < draws; i++) {
+                sampler.sample(rng, stops);
+                lastStops += stops[0] == 29 ? 1 : 0;
+            }
+            assertThat(lastStops / (double) draws).isCloseTo(61 / 90.0, within(0.01));
+        } finally {
+            Files.deleteIfExists(WEIGHTED_XML_CONFIG);
+        }
+    }
+
+    /**
+     * The small configuration of {@link RtpEnumerationTest}, with the wildcard weighted up on the first reel
+     * and the scatter weighted down on the last one.
+     */
+    static GameConfig weightedConfig() {
+        GameConfig config = RtpEnumerationTest.smallConfig();
+        var reels = config.getReels();
+        config.setReelWeights(List.of(
+                IntStream.range(0, reels.get(0).size()).map(i -> reels.get(0).get(i) == 4 ? 6 : 2).boxed().toList(),
+                Collections.nCopies(reels.get(1).size(), 1),
+                IntStream.range(0, reels.get(2).size()).map(i -> reels.get(2).get(i) == 5 ? 1 : 3).boxed().toList()
+        ));
+        return config;
+    }
+
+}
@@ -25,11 +25,11 @@ public class WildcardBehaviourTest {
     }
 
     private void ThenShouldWin3000FromLines() {
-        assertWinAmount(3000.0);
+        assertWinAmount(3000);
     }
 
     private void GivenBetOn3LinesFor1AndGenArray0_0_0_0_0() {
-        game.setupNextRound(3, 1.0, false);
+        game.setupNextRound(3, 1, false);
         diceRolls = new int[]{0, 0, 0, 0, 0};
     }
 
@@ -42,11 +42,11 @@ public class WildcardBehaviourTest {
     }
 
     private void ThenShouldWin1000FromLines() {
-        assertWinAmount(1000.0);
+        assertWinAmount(1000);
     }
 
     private void GivenBetOn1LineFor1AndGenArray0_0_0_0_0() {
-        game.setupNextRound(1, 1.0, false);
+        game.setupNextRound(1, 1, false);
         diceRolls = new int[]{0, 0, 0, 0, 0};
     }
 
@@ -59,7 +59,7 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn3LinesFor10AndGenArray0_0_3_6_25() {
-        game.setupNextRound(3, 10.0, false);
+        game.setupNextRound(3, 10, false);
         diceRolls = new int[]{0, 0, 3, 6, 25};
     }
 
@@ -72,7 +72,7 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn1LineFor10AndGenArray0_0_3_6_25() {
-        game.setupNextRound(1, 10.0, false);
+        game.setupNextRound(1, 10, false);
         diceRolls = new int[]{0, 0, 3, 6, 25};
     }
 
@@ -85,11 +85,11 @@ public class WildcardBehaviourTest {
     }
 
     private void ThenShouldWin150FromLines() {
-        assertWinAmount(150.0);
+        assertWinAmount(150);
     }
 
     private void GivenBetOn3LinesFor5AndGenArray3_0_0_22_25() {
-        game.setupNextRound(3, 5.0, false);
+        game.setupNextRound(3, 5, false);
         diceRolls = new int[]{3, 0, 0, 22, 25};
     }
 
@@ -102,11 +102,11 @@ public class WildcardBehaviourTest {
     }
 
     private void ThenShouldWin50FromLines() {
-        assertWinAmount(50.0);
+        assertWinAmount(50);
     }
 
     private void GivenBetOn1LineFor5AndGenArray3_0_0_22_25() {
-        game.setupNextRound(1, 5.0, false);
+        game.setupNextRound(1, 5, false);
         diceRolls = new int[]{3, 0, 0, 22, 25};
     }
 
@@ -119,7 +119,7 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn1LineFor5AndGenArray10_0_0_18_25() {
-        game.setupNextRound(1, 5.0, false);
+        game.setupNextRound(1, 5, false);
         diceRolls = new int[]{10, 0, 0, 18, 25};
     }
 
@@ -132,7 +132,7 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn3LinesFor10AndGenArray0_0_0_15_19() {
-        game.setupNextRound(3, 10.0, false);
+        game.setupNextRound(3, 10, false);
         diceRolls = new int[]{0, 0, 0, 15, 19};
     }
 
@@ -145,7 +145,7 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn1LineFor10AndGenArray0_0_0_15_19() {
-        game.setupNextRound(1, 10.0, false);
+        game.setupNextRound(1, 10, false);
         diceRolls = new int[]{0, 0, 0, 15, 19};
     }
 
@@ -158,12 +158,12 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn3LinesFor5AndGenArray0_0_0_18_19() {
-        game.setupNextRound(3, 5.0, false);
+        game.setupNextRound(3, 5, false);
         diceRolls = new int[]{0, 0, 0, 18, 19};
     }
 
     private void ThenShouldWin1500FromLines() {
-        assertWinAmount(1500.0);
+        assertWinAmount(1500);
     }
 
     @Test
@@ -175,12 +175,12 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn1LineFor5AndGenArray0_0_0_18_19() {
-        game.setupNextRound(1, 5.0, false);
+        game.setupNextRound(1, 5, false);
         diceRolls = new int[]{0, 0, 0, 18, 19};
     }
 
     private void ThenShouldWin500FromLines() {
-        assertWinAmount(500.0);
+        assertWinAmount(500);
     }
 
     @Test
@@ -192,12 +192,12 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn3LinesFor10AndGenArray0_0_0_18_9() {
-        game.setupNextRound(3, 10.0, false);
+        game.setupNextRound(3, 10, false);
         diceRolls = new int[]{0, 0, 0, 18, 9};
     }
 
     private void ThenShouldWin1200FromLines() {
-        assertWinAmount(1200.0);
+        assertWinAmount(1200);
     }
 
     @Test
@@ -209,12 +209,12 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn1LineFor10AndGenArray0_0_0_18_9() {
-        game.setupNextRound(1, 10.0, false);
+        game.setupNextRound(1, 10, false);
         diceRolls = new int[]{0, 0, 0, 18, 9};
     }
 
     private void ThenShouldWin400FromLines() {
-        assertWinAmount(400.0);
+        assertWinAmount(400);
     }
 
     @Test
@@ -226,12 +226,12 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn1LineFor10AndGenArray10_20_29_17_24() {
-        game.setupNextRound(1, 10.0, false);
+        game.setupNextRound(1, 10, false);
         diceRolls = new int[]{10, 20, 29, 17, 24};
     }
 
     private void ThenShouldWin200FromLines() {
-        assertWinAmount(200.0);
+        assertWinAmount(200);
     }
 
     @Test
@@ -243,7 +243,7 @@ public class WildcardBehaviourTest {
     }
 
     private void GivenBetOn1LineFor5AndGenArray4_29_29_17_24() {
-        game.setupNextRound(1, 5.0, false);
+        game.setupNextRound(1, 5, false);
         diceRolls = new int[]{4, 29, 29, 17, 24};
     }
 
@@ -252,7 +252,7 @@ public class WildcardBehaviourTest {
     }
 
     private void ThenShouldWin100FromLines() {
-        assertWinAmount(100.0);
+        assertWinAmount(100);
     }
 
     private void generateScreenFromDiceRolls() {
@@ -260,16 +260,16 @@ public class WildcardBehaviourTest {
         log.info(System.lineSeparator() + reelScreen.toString());
     }
 
-    private void assertWinAmount(double fromLines) {
-        double oldBalance = game.getGameState().getCurrentBalance();
+    private void assertWinAmount(long fromLines) {
+        long oldBalance = game.getGameState().getCurrentBalance();
         assertThat(game.playNextRound()).as("Total win amount")
-                .isEqualTo(fromLines + 0.0);
+                .isEqualTo(fromLines);
         assertThat(game.getGameState().getGameRound().getWinFromLines()).as("Win from lines")
                 .isEqualTo(fromLines);
         assertThat(game.getGameState().getGameRound().getWinFromScatters()).as("Win from scatters")
-                .isEqualTo(0.0);
+                .isEqualTo(0);
         assertThat(game.getGameState().getCurrentBalance()).as("New balance amount")
-                .isEqualTo(oldBalance + (fromLines + 0.0));
+                .isEqualTo(oldBalance + fromLines);
     }
 
 }
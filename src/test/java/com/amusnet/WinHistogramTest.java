@@ -0,0 +1,101 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.simulation.FullCycleEnumerator;
+import com.amusnet.simulation.WinHistogram;
+import com.amusnet.simulation.WinTally;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WinHistogramTest {
+
+    private final WinHistogram histogram = new WinHistogram();
+
+    @Test
+    void smallValues_countedExactly() {
+        for (long value = 0; value < 100; value++)
+            histogram.record(value, 2);
+
+        assertThat(histogram.getTotalCount()).isEqualTo(200);
+        assertThat(histogram.getMaxValue()).isEqualTo(99);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(49);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(99);
+        assertThat(histogram.getCountAtOrAbove(90)).isEqualTo(20);
+        assertThat(histogram.getExceedanceProbability(50)).isEqualTo(0.5);
+    }
+
+    @Test
+    void largeValues_withinRelativePrecision() {
+        var rnd = new SplittableRandom(5);
+        double precision = 1.0 / (1 << (WinHistogram.SUB_BUCKET_BITS - 1));
+        for (int i = 0; i < 10_000; i++) {
+            long value = rnd.nextLong(Long.MAX_VALUE >> rnd.nextInt(63));
+            var single = new WinHistogram();
+            single.record(value, 1);
+
+            assertThat(single.getCountAtOrAbove(value)).as("Count at or above %d", value).isEqualTo(1);
+            if (value < Long.MAX_VALUE / 2)
+                assertThat(single.getCountAtOrAbove((long) (value * (1 + precision)) + 1))
+                        .as("Count well above %d", value).isZero();
+        }
+    }
+
+    @Test
+    void mergedHistograms_sameAsRecordingAllValues() {
+        var first = new WinHistogram();
+        var second = new WinHistogram();
+        var rnd = new SplittableRandom(9);
+        for (int i = 0; i < 1000; i++) {
+            long value = rnd.nextLong(1_000_000);
+            histogram.record(value, 1);
+            (i % 2 == 0 ? first : second).record(value, 1);
+        }
+
+        assertThat(first.merge(second)).usingRecursiveComparison().isEqualTo(histogram);
+    }
+
+    @Test
+    void negativeValue_throws() {
+        assertThatThrownBy(() -> histogram.record(-1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fullCycle_distributionMatchesPlayingEveryCombination() {
+        GameConfig config = RtpEnumerationTest.smallConfig();
+        int lines = config.getLineCount();
+        WinTally tally = new FullCycleEnumerator(config).enumerate(new ForkJoinPool(3));
+
+        var gameRound = new GameRound(config);
+        gameRound.setLinesPlayed(lines);
+        gameRound.setBetAmount(1);
+        List<Long> wins = new ArrayList<>();
+        var reels = config.getReels();
+        for (int a = 0; a < reels.get(0).size(); a++)
+            for (int b = 0; b < reels.get(1).size(); b++)
+                for (int c = 0; c < reels.get(2).size(); c++) {
+                    gameRound.getReelScreen().generateScreen(new int[]{a, b, c});
+                    wins.add(gameRound.playRound().getTotalWin());
+                }
+        Collections.sort(wins);
+
+        // the wins of the small configuration are all counted exactly
+        assertThat(tally.getHistogram().getTotalCount()).isEqualTo(wins.size());
+        assertThat(tally.getHistogram().getMaxValue()).isEqualTo(wins.get(wins.size() - 1)).isLessThan(256);
+        for (double percentile : new double[]{50, 90, 99, 99.9})
+            assertThat(tally.getWinAtPercentile(percentile)).as("Win at percentile %f", percentile)
+                    .isEqualTo((double) wins.get((int) Math.ceil(percentile / 100 * wins.size()) - 1) / lines);
+        for (int threshold : new int[]{1, 5, 10, 20})
+            assertThat(tally.getExceedanceProbability(threshold)).as("Probability of a win of %dx", threshold)
+                    .isEqualTo((double) wins.stream().filter(w -> w >= threshold * lines).count() / wins.size());
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.amusnet;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.simulation.MonteCarloSimulator;
+import com.amusnet.simulation.SimulationResult;
+import com.amusnet.simulation.WinTally;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class WinStatisticsTest {
+
+    private final GameConfig config = RtpEnumerationTest.smallConfig();
+    private final GameRound gameRound = new GameRound(config);
+    private final int lines = config.getLineCount();
+    private final int scatter = config.getScatters().iterator().next();
+
+    // wins of every combination of the full cycle, in line bets
+    private final List<Long> wins = new ArrayList<>();
+    private long lineHitsOfFirstLine, scatterHits;
+
+    @BeforeEach
+    void setUp() {
+        gameRound.setLinesPlayed(lines);
+        gameRound.setBetAmount(5);
+    }
+
+    @Test
+    void fullCycle_statisticsMatchTwoPassComputation() {
+        WinTally tally = newTally();
+        forEachCombination(tally, 0, Long.MAX_VALUE);
+
+        double mean = wins.stream().mapToDouble(w -> (double) w / lines).average().orElseThrow();
+        double variance = wins.stream().mapToDouble(w -> Math.pow((double) w / lines - mean, 2)).sum() / wins.size();
+
+        assertThat(tally.getSpins()).isEqualTo(wins.size());
+        assertThat(tally.getHits()).isEqualTo(wins.stream().filter(w -> w > 0).count());
+        assertThat(tally.getRtp()).isCloseTo(mean, within(1e-12));
+        assertThat(tally.getVariance()).isCloseTo(variance, within(1e-9));
+        assertThat(tally.getVolatilityIndex())
+                .isCloseTo(WinTally.VOLATILITY_INDEX_QUANTILE * Math.sqrt(variance), within(1e-9));
+        assertThat(tally.getMaxWin()).isEqualTo((double) wins.stream().mapToLong(w -> w).max().orElseThrow() / lines);
+        assertThat(tally.getLineHits(0)).isEqualTo(lineHitsOfFirstLine);
+        assertThat(tally.getScatterTriggerRate(scatter)).isEqualTo((double) scatterHits / wins.size());
+
+        long lineHits = 0, cardLineHits = 0;
+        for (int i = 0; i < lines; i++)
+            lineHits += tally.getLineHits(i);
+        for (int card = 0; card < config.getPayTable().getCardIndexCount(); card++)
+            cardLineHits += tally.getCardLineHits(card);
+        assertThat(cardLineHits).as("Winning lines by card").isEqualTo(lineHits);
+    }
+
+    @Test
+    void splitCycle_mergedTallyEqualsWholeCycle() {
+        WinTally whole = newTally();
+        forEachCombination(whole, 0, Long.MAX_VALUE);
+        WinTally first = newTally(), second = newTally();
+        forEachCombination(first, 0, 1234);
+        forEachCombination(second, 1234, Long.MAX_VALUE);
+
+        WinTally merged = second.merge(first);
+
+        assertThat(merged).usingRecursiveComparison().isEqualTo(whole);
+        assertThat(merged.getVariance()).isEqualTo(whole.getVariance());
+    }
+
+    @Test
+    void weightedRound_sameAsRepeatedRound() {
+        gameRound.getReelScreen().generateScreen(new int[]{9, 10, 9});   // scatter on every reel
+        var result = gameRound.playRound();
+        WinTally weighted = newTally(), repeated = newTally();
+        weighted.add(result, 3);
+        for (int i = 0; i < 3; i++)
+            repeated.add(result);
+
+        assertThat(weighted).usingRecursiveComparison().isEqualTo(repeated);
+        assertThat(weighted.getScatterTriggerRate(scatter)).isEqualTo(1);
+        assertThat(weighted.getVariance()).isZero();
+    }
+
+    @Test
+    void squaredWinsBeyond64Bits_varianceStillExact() {
+        WinTally tally = newTally();
+        gameRound.getReelScreen().generateScreen(new int[]{9, 10, 9});
+        long bigWin = gameRound.playRound().getTotalMultiplier();
+        tally.add(gameRound.getRoundResult(), 1L << 56);
+        gameRound.getReelScreen().generateScreen(new int[]{1, 1, 1});
+        long smallWin = gameRound.playRound().getTotalMultiplier();
+        tally.add(gameRound.getRoundResult(), 1L << 56);
+
+        // half the rounds win one amount, half the other: the variance is (difference / 2)^2
+        assertThat(Math.multiplyHigh(bigWin * bigWin, 1L << 56)).as("High 64 bits of the squared wins").isPositive();
+        double halfDifference = (double) (bigWin - smallWin) / lines / 2;
+        assertThat(tally.getVariance()).isCloseTo(halfDifference * halfDifference, within(1e-12));
+    }
+
+    @Test
+    void simulation_statisticsIndependentOfThreadCount() {
+        SimulationResult oneThread = new MonteCarloSimulator(config, lines, 1).simulate(200_000, 42);
+        SimulationResult twoThreads = new MonteCarloSimulator(config, lines, 2).simulate(200_000, 42);
+
+        assertThat(twoThreads.getTally()).usingRecursiveComparison().isEqualTo(oneThread.getTally());
+        assertThat(twoThreads.getTally().getVariance()).isPositive();
+    }
+
+    @Test
+    void json_holdsTheStatistics() {
+        WinTally tally = newTally();
+        forEachCombination(tally, 0, Long.MAX_VALUE);
+
+        String json = tally.toJson();
+
+        assertThat(json).startsWith("{").endsWith("}")
+                .contains("\"spins\":" + tally.getSpins())
+                .contains("\"rtp\":" + tally.getRtp())
+                .contains("\"variance\":" + tally.getVariance())
+                .contains("\"lineHits\":[" + tally.getLineHits(0) + ",")
+                .contains("\"scatterTriggerRates\":{\"" + scatter + "\":");
+    }
+
+    private WinTally newTally() {
+        return new WinTally(lines, config.getPayTable().getCardIndexCount());
+    }
+
+    private void forEachCombination(WinTally tally, long from, long to) {
+        var reels = config.getReels();
+        long combination = 0;
+        for (int a = 0; a < reels.get(0).size(); a++)
+            for (int b = 0; b < reels.get(1).size(); b++)
+                for (int c = 0; c < reels.get(2).size(); c++, combination++) {
+                    if (combination < from || combination >= to)
+                        continue;
+                    gameRound.getReelScreen().generateScreen(new int[]{a, b, c});
+                    var result = gameRound.playRound();
+                    tally.add(result);
+                    wins.add(result.getTotalMultiplier());
+                    lineHitsOfFirstLine += result.getLineWin(0).isWin() ? 1 : 0;
+                    scatterHits += result.getScatterMultiplier(0) > 0 ? 1 : 0;
+                }
+    }
+
+}
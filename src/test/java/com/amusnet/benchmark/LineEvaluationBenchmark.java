@@ -0,0 +1,90 @@
+package com.amusnet.benchmark;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.game.components.LaneLineEvaluator;
+import com.amusnet.game.components.LineEvaluationStrategy;
+import com.amusnet.game.components.ReelScreen;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the line evaluation strategies on the shipped configuration, betting on all lines.
+ * <br/><br/>
+ * Run with the test classpath, e.g. from the IDE, or:
+ * <br/>
+ * mvn test-compile exec:java -Dexec.mainClass=com.amusnet.benchmark.LineEvaluationBenchmark -Dexec.classpathScope=test
+ * <br/><br/>
+ * The forked JVMs run with the Vector API module, so {@link LineEvaluationStrategy#VECTOR} is compared as well
+ * if the project was built with the vector-api profile (mvn -Pvector-api ...).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineEvaluationBenchmark {
+
+    private static final int DISTINCT_SCREENS = 1024;
+
+    @Param({"CARD_BY_CARD", "BITBOARD", "OUTCOME_TABLE", "VECTOR"})
+    private LineEvaluationStrategy strategy;
+
+    private GameRound gameRound;
+    private ReelScreen rs;
+    private int[][] diceRolls;
+    private int spin;
+
+    @Setup
+    public void setup() {
+        GameConfig config = Game.CONFIGURATION;
+        gameRound = new GameRound(config);
+        gameRound.setLineEvaluationStrategy(strategy);
+        gameRound.setLinesPlayed(config.getLineCount());
+        gameRound.setBetAmount(1);
+        rs = gameRound.getReelScreen();
+
+        Random rnd = new Random(42);
+        diceRolls = new int[DISTINCT_SCREENS][config.getScreenColumnCount()];
+        for (int[] rolls : diceRolls)
+            for (int j = 0; j < rolls.length; j++)
+                rolls[j] = rnd.nextInt(config.getReels().get(j).size());
+    }
+
+    @Benchmark
+    public long playRound() {
+        rs.generateScreen(diceRolls[spin++ & (DISTINCT_SCREENS - 1)]);
+        return gameRound.playRound().getTotalWin();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String[] strategies = Arrays.stream(LineEvaluationStrategy.values())
+                .filter(s -> s != LineEvaluationStrategy.VECTOR || isVectorEvaluatorCompiled())
+                .map(Enum::name)
+                .toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .include(LineEvaluationBenchmark.class.getSimpleName())
+                .param("strategy", strategies)
+                .jvmArgsAppend("--add-modules", LaneLineEvaluator.VECTOR_API_MODULE)
+                .build()).run();
+    }
+
+    private static boolean isVectorEvaluatorCompiled() {
+        try {
+            Class.forName(LaneLineEvaluator.class.getPackageName() + ".VectorLineEvaluator", false,
+                    LaneLineEvaluator.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.amusnet.benchmark;
+
+import com.amusnet.config.GameConfig;
+import com.amusnet.game.Game;
+import com.amusnet.game.components.GameRound;
+import com.amusnet.game.components.ReelScreen;
+import com.amusnet.rng.RngSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the random number sources on the shipped configuration: screen generation alone,
+ * and a full spin betting on all lines.
+ * <br/><br/>
+ * Run with the test classpath, e.g. from the IDE, or:
+ * <br/>
+ * mvn test-compile exec:java -Dexec.mainClass=com.amusnet.benchmark.RngBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RngBenchmark {
+
+    @Param({"SplittableRandom", "ThreadLocalRandom", "L64X128MixRandom", "Xoshiro256PlusPlus"})
+    private String algorithm;
+
+    private GameRound gameRound;
+    private ReelScreen rs;
+
+    @Setup
+    public void setup() {
+        GameConfig config = Game.CONFIGURATION;
+        rs = new ReelScreen(config, RngSource.of(algorithm, 42));
+        gameRound = new GameRound(config, rs);
+        gameRound.setLinesPlayed(config.getLineCount());
+        gameRound.setBetAmount(1);
+    }
+
+    @Benchmark
+    public ReelScreen generateScreen() {
+        return rs.generateScreen();
+    }
+
+    @Benchmark
+    public long spin() {
+        rs.generateScreen();
+        return gameRound.playRound().getTotalWin();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RngBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}